@@ -0,0 +1,80 @@
+package dev.jorel.commandapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.arguments.Argument;
+import dev.jorel.commandapi.arguments.DoubleArgument;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
+
+/**
+ * Measures converting the arguments of a parsed command into the values which
+ * are passed to its executor
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentParsingBenchmark {
+
+	@Param({ "1", "5", "10", "20" })
+	public int argumentCount;
+
+	private CommandAPIHandler<CommandSender> handler;
+	private Argument<?>[] arguments;
+	private CommandContext<CommandSender> context;
+
+	@Setup
+	public void setUp() {
+		HeadlessNMS nms = Headless.setUp();
+		handler = Headless.getHandler();
+
+		arguments = new Argument<?>[argumentCount];
+		StringBuilder input = new StringBuilder("parse");
+		for (int i = 0; i < argumentCount; i++) {
+			switch (i % 3) {
+				case 0 -> {
+					arguments[i] = new IntegerArgument("int" + i);
+					input.append(" 42");
+				}
+				case 1 -> {
+					arguments[i] = new DoubleArgument("double" + i);
+					input.append(" 1.5");
+				}
+				default -> {
+					arguments[i] = new StringArgument("string" + i);
+					input.append(" word");
+				}
+			}
+		}
+		new CommandAPICommand("parse").withArguments(arguments).executes((sender, args) -> {
+		}).register();
+
+		String command = input.toString();
+		context = nms.getBrigadierDispatcher().parse(command, Headless.createConsole()).getContext().build(command);
+	}
+
+	@Benchmark
+	public Object[] argsToObjectArr() throws CommandSyntaxException {
+		return handler.argsToObjectArr(context, arguments);
+	}
+
+}
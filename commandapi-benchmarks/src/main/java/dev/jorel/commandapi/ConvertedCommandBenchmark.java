@@ -0,0 +1,81 @@
+package dev.jorel.commandapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.arguments.Argument;
+import dev.jorel.commandapi.arguments.EntitySelector;
+import dev.jorel.commandapi.arguments.EntitySelectorArgument;
+import dev.jorel.commandapi.executors.CommandExecutor;
+
+/**
+ * Measures running a converted command whose entity selectors are expanded
+ * into every combination of the selected players
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertedCommandBenchmark {
+
+	@Param({ "1", "10", "30" })
+	public int playerCount;
+
+	@Param({ "1", "2" })
+	public int selectorCount;
+
+	private Command<CommandSender> command;
+	private CommandContext<CommandSender> context;
+
+	@Setup
+	public void setUp() throws CommandSyntaxException {
+		HeadlessNMS nms = Headless.setUp();
+		for (int i = 0; i < playerCount; i++) {
+			nms.addPlayer(Headless.createPlayer("player" + i));
+		}
+
+		Argument<?>[] arguments = new Argument<?>[selectorCount];
+		StringBuilder input = new StringBuilder("converted");
+		for (int i = 0; i < selectorCount; i++) {
+			arguments[i] = new EntitySelectorArgument<>("targets" + i, EntitySelector.MANY_PLAYERS);
+			input.append(" @a");
+		}
+
+		// The registered command is only used to parse the input. The converted
+		// command is run directly with the parsed context
+		new CommandAPICommand("converted").withArguments(arguments).executes((sender, args) -> {
+		}).register();
+		String commandString = input.toString();
+		context = nms.getBrigadierDispatcher().parse(commandString, Headless.createConsole()).getContext()
+			.build(commandString);
+
+		CustomCommandExecutor<CommandSender> executor = new CustomCommandExecutor<>();
+		executor.addNormalExecutor((CommandExecutor) (sender, args) -> {
+		});
+		command = Headless.getHandler().generateCommand("converted", arguments, executor, true);
+	}
+
+	@Benchmark
+	public int run() throws CommandSyntaxException {
+		return command.run(context);
+	}
+
+}
@@ -0,0 +1,81 @@
+package dev.jorel.commandapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.executors.CommandExecutor;
+import dev.jorel.commandapi.executors.ConsoleCommandExecutor;
+import dev.jorel.commandapi.executors.EntityCommandExecutor;
+import dev.jorel.commandapi.executors.PlayerCommandExecutor;
+
+/**
+ * Measures choosing and running the executor of a command for different types
+ * of command sender
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorDispatchBenchmark {
+
+	private final Object[] arguments = new Object[0];
+
+	private CustomCommandExecutor<CommandSender> executor;
+	private Player player;
+	private ConsoleCommandSender console;
+	private BlockCommandSender block;
+
+	@Setup
+	public void setUp() {
+		Headless.setUp();
+		player = Headless.createPlayer("player");
+		console = Headless.createConsole();
+		block = Headless.createSender(BlockCommandSender.class, "block");
+
+		executor = new CustomCommandExecutor<>();
+		executor.addNormalExecutor((PlayerCommandExecutor) (sender, args) -> {
+		});
+		executor.addNormalExecutor((EntityCommandExecutor) (sender, args) -> {
+		});
+		executor.addNormalExecutor((ConsoleCommandExecutor) (sender, args) -> {
+		});
+		executor.addNormalExecutor((CommandExecutor) (sender, args) -> {
+		});
+	}
+
+	@Benchmark
+	public int player() throws CommandSyntaxException {
+		return executor.execute(player, arguments);
+	}
+
+	@Benchmark
+	public int console() throws CommandSyntaxException {
+		return executor.execute(console, arguments);
+	}
+
+	// Block command senders have no executor of their own, so they fall back to
+	// the executor for every sender
+	@Benchmark
+	public int fallback() throws CommandSyntaxException {
+		return executor.execute(block, arguments);
+	}
+
+}
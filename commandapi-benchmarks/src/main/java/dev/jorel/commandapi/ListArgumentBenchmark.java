@@ -0,0 +1,73 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.arguments.ListArgument;
+import dev.jorel.commandapi.arguments.ListArgumentBuilder;
+
+/**
+ * Measures parsing a ListArgument, for different numbers of allowed values and
+ * values in the list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListArgumentBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int valueCount;
+
+	@Param({ "1", "10", "50" })
+	public int selectedCount;
+
+	private HeadlessNMS nms;
+	private ListArgument<String> argument;
+	private CommandContext<CommandSender> context;
+
+	@Setup
+	public void setUp() {
+		nms = Headless.setUp();
+
+		List<String> values = new ArrayList<>(valueCount);
+		for (int i = 0; i < valueCount; i++) {
+			values.add("value" + i);
+		}
+		argument = new ListArgumentBuilder<String>("values").withList(values).withStringMapper().build();
+		new CommandAPICommand("list").withArguments(argument).executes((sender, args) -> {
+		}).register();
+
+		StringBuilder input = new StringBuilder("list ");
+		for (int i = 0; i < selectedCount; i++) {
+			input.append(i == 0 ? "" : " ").append(values.get(i * 7 % valueCount));
+		}
+		String command = input.toString();
+		context = nms.getBrigadierDispatcher().parse(command, Headless.createConsole()).getContext().build(command);
+	}
+
+	@Benchmark
+	public List<String> parse() throws CommandSyntaxException {
+		return argument.parseArgument(nms, context, "values", new Object[0]);
+	}
+
+}
@@ -0,0 +1,77 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.jorel.commandapi.arguments.GreedyStringArgument;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
+
+/**
+ * Measures registering a large number of commands, one at a time and in a
+ * single batch. Each command has a few arguments, including a
+ * MultiLiteralArgument, so conflict checking and node generation are included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+	@Param({ "100", "1000" })
+	public int commandCount;
+
+	@Param({ "false", "true" })
+	public boolean batched;
+
+	private HeadlessNMS nms;
+	private List<CommandAPICommand> commands;
+
+	// Every invocation registers into a new, empty dispatcher
+	@Setup(Level.Invocation)
+	public void setUp() {
+		nms = Headless.setUp();
+		commands = new ArrayList<>(commandCount);
+		for (int i = 0; i < commandCount; i++) {
+			commands.add(new CommandAPICommand("command" + i)
+				.withArguments(new MultiLiteralArgument("add", "remove", "set"))
+				.withArguments(new StringArgument("name"))
+				.withArguments(new IntegerArgument("amount", 0, 64))
+				.withArguments(new GreedyStringArgument("reason"))
+				.executes((sender, args) -> {
+				}));
+		}
+	}
+
+	@Benchmark
+	public int register() {
+		if (batched) {
+			CommandAPI.beginBatch();
+		}
+		for (CommandAPICommand command : commands) {
+			command.register();
+		}
+		if (batched) {
+			CommandAPI.commitBatch();
+		}
+		return nms.getBrigadierDispatcher().getRoot().getChildren().size();
+	}
+
+}
@@ -0,0 +1,72 @@
+package dev.jorel.commandapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+
+/**
+ * Measures filtering a fixed list of suggestions by what the sender has typed,
+ * for different numbers of candidates and prefixes which match every
+ * candidate, some candidates and no candidates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionBenchmark {
+
+	private static final String COMMAND = "suggest ";
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int candidateCount;
+
+	@Param({ "", "candidate1", "none" })
+	public String prefix;
+
+	private ArgumentSuggestions strings;
+	private ArgumentSuggestions indexed;
+	private SuggestionInfo info;
+	private String input;
+
+	@Setup
+	public void setUp() {
+		String[] candidates = new String[candidateCount];
+		for (int i = 0; i < candidateCount; i++) {
+			candidates[i] = "candidate" + i;
+		}
+		strings = ArgumentSuggestions.strings(candidates);
+		indexed = ArgumentSuggestions.indexed(candidates);
+
+		input = COMMAND + prefix;
+		info = new SuggestionInfo(Headless.createConsole(), new Object[0], input, prefix);
+	}
+
+	@Benchmark
+	public Suggestions strings() throws CommandSyntaxException {
+		return strings.suggest(info, new SuggestionsBuilder(input, COMMAND.length())).join();
+	}
+
+	@Benchmark
+	public Suggestions indexed() throws CommandSyntaxException {
+		return indexed.suggest(info, new SuggestionsBuilder(input, COMMAND.length())).join();
+	}
+
+}
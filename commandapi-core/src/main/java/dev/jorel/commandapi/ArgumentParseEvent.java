@@ -0,0 +1,25 @@
+package dev.jorel.commandapi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event which is recorded when the CommandAPI parses an
+ * argument of a command into its Bukkit value
+ */
+@Name("dev.jorel.commandapi.ArgumentParse")
+@Label("Argument Parse")
+@Category("CommandAPI")
+@Description("An argument was parsed by the CommandAPI")
+final class ArgumentParseEvent extends Event {
+
+	@Label("Argument Class")
+	Class<?> argumentClass;
+
+	@Label("Node Name")
+	String nodeName;
+
+}
@@ -3,7 +3,6 @@ package dev.jorel.commandapi;
 import dev.jorel.commandapi.arguments.Argument;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -49,20 +48,4 @@ public class ArgumentTree extends Executable<ArgumentTree> {
 		return this;
 	}
 
-	List<Execution> getExecutions() {
-		List<Execution> executions = new ArrayList<>();
-		// If this is executable, add its execution
-		if (this.executor.hasAnyExecutors()) {
-			executions.add(new Execution(Arrays.asList(this.argument), this.executor));
-		}
-		// Add all executions from all arguments
-		for (ArgumentTree tree : arguments) {
-			for (Execution execution : tree.getExecutions()) {
-				// Prepend this argument to the arguments of the executions
-				executions.add(execution.prependedBy(this.argument));
-			}
-		}
-		return executions;
-	}
-
 }
@@ -0,0 +1,292 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * The executor that the CommandAPI uses to run blocking work, such as
+ * asynchronous suggestions, off the main server thread. Tasks run on virtual
+ * threads if they are available (Java 21 and above), and otherwise on a
+ * bounded thread pool.
+ *
+ * The number of tasks which can run at once is limited, both in total and for
+ * each player. Tasks which can't run yet are queued, and tasks are rejected if
+ * the queue is full. When the CommandAPI is disabled, this executor is
+ * {@link #shutdown() shut down}.
+ */
+public final class AsyncExecutor {
+
+	private final ExecutorService executor;
+	private final boolean virtualThreads;
+	private final int maxConcurrentTasks;
+	private final int maxConcurrentTasksPerPlayer;
+	private final int maxQueuedTasks;
+
+	// Guarded by this
+	private final Deque<Task<?>> queue = new ArrayDeque<>();
+	private final Map<UUID, Integer> runningPerPlayer = new HashMap<>();
+	private int running = 0;
+	private long completed = 0;
+	private long rejected = 0;
+	private boolean shutdown = false;
+
+	AsyncExecutor(boolean useVirtualThreads, int maxConcurrentTasks, int maxConcurrentTasksPerPlayer,
+			int maxQueuedTasks) {
+		this.maxConcurrentTasks = Math.max(maxConcurrentTasks, 1);
+		this.maxConcurrentTasksPerPlayer = maxConcurrentTasksPerPlayer;
+		this.maxQueuedTasks = Math.max(maxQueuedTasks, 0);
+
+		ExecutorService virtualThreadExecutor = useVirtualThreads ? createVirtualThreadExecutor() : null;
+		if (virtualThreadExecutor != null) {
+			this.executor = virtualThreadExecutor;
+			this.virtualThreads = true;
+		} else {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(this.maxConcurrentTasks, this.maxConcurrentTasks, 60L,
+					TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new AsyncThreadFactory());
+			pool.allowCoreThreadTimeOut(true);
+			this.executor = pool;
+			this.virtualThreads = false;
+		}
+	}
+
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// Virtual threads aren't available on this version of Java
+			return null;
+		}
+	}
+
+	/**
+	 * Runs a blocking task asynchronously. If the task can't be run yet because
+	 * too many tasks are running, it is queued.
+	 *
+	 * @param <T>    the type of the task's result
+	 * @param sender the sender that this task is being run for. If this is a
+	 *               player, the task counts towards their concurrent task limit
+	 * @param task   the task to run
+	 * @return a future which completes with the result of the task. If the queue
+	 *         is full, this future completes exceptionally with a
+	 *         {@link RejectedExecutionException}, as it does if this executor
+	 *         has been shut down. If this future is cancelled
+	 *         before the task starts, the task is not run, and if it is cancelled
+	 *         while the task is running, the thread running it is interrupted
+	 */
+	public <T> CompletableFuture<T> supply(CommandSender sender, Supplier<T> task) {
+		Task<T> newTask = new Task<>(sender instanceof Player player ? player.getUniqueId() : null, task);
+		newTask.future.whenComplete((result, throwable) -> {
+			if (newTask.future.isCancelled()) {
+				onCancelled(newTask);
+			}
+		});
+		boolean start = false;
+		synchronized (this) {
+			if (shutdown) {
+				rejected++;
+				newTask.future.completeExceptionally(
+						new RejectedExecutionException("The CommandAPI's async executor has been shut down"));
+			} else if (canStart(newTask.owner)) {
+				markStarted(newTask.owner);
+				start = true;
+			} else {
+				if (queue.size() >= maxQueuedTasks) {
+					// Make room by removing tasks that were cancelled while queued
+					queue.removeIf(queued -> queued.future.isDone());
+				}
+				if (queue.size() < maxQueuedTasks) {
+					queue.add(newTask);
+				} else {
+					rejected++;
+					newTask.future.completeExceptionally(new RejectedExecutionException(
+							"The CommandAPI's async task queue is full (" + maxQueuedTasks + " tasks)"));
+				}
+			}
+		}
+		if (start) {
+			execute(newTask);
+		}
+		return newTask.future;
+	}
+
+	/**
+	 * Shuts down this executor. Queued tasks are cancelled, running tasks are
+	 * interrupted, and new tasks are rejected. This is called when the CommandAPI
+	 * is disabled.
+	 */
+	public void shutdown() {
+		List<Task<?>> queued;
+		synchronized (this) {
+			if (shutdown) {
+				return;
+			}
+			shutdown = true;
+			queued = new ArrayList<>(queue);
+			queue.clear();
+		}
+		for (Task<?> task : queued) {
+			task.future.cancel(true);
+		}
+		executor.shutdownNow();
+	}
+
+	/**
+	 * @return the number of running and queued tasks, and the number of tasks that
+	 *         have completed or been rejected
+	 */
+	public synchronized AsyncExecutorStats getStats() {
+		return new AsyncExecutorStats(running, queue.size(), completed, rejected, virtualThreads);
+	}
+
+	// Must be called while holding the lock
+	private boolean canStart(UUID owner) {
+		return running < maxConcurrentTasks && (owner == null || maxConcurrentTasksPerPlayer <= 0
+				|| runningPerPlayer.getOrDefault(owner, 0) < maxConcurrentTasksPerPlayer);
+	}
+
+	// Must be called while holding the lock
+	private void markStarted(UUID owner) {
+		running++;
+		if (owner != null) {
+			runningPerPlayer.merge(owner, 1, Integer::sum);
+		}
+	}
+
+	// Must be called while holding the lock
+	private void markStopped(UUID owner) {
+		running--;
+		if (owner != null) {
+			runningPerPlayer.computeIfPresent(owner, (uuid, count) -> count == 1 ? null : count - 1);
+		}
+	}
+
+	private void onCancelled(Task<?> task) {
+		synchronized (this) {
+			queue.remove(task);
+		}
+		task.interrupt();
+	}
+
+	private void onFinished(Task<?> task) {
+		List<Task<?>> toStart = new ArrayList<>();
+		synchronized (this) {
+			markStopped(task.owner);
+			completed++;
+
+			// Start the oldest queued tasks which are now allowed to run
+			Iterator<Task<?>> iterator = queue.iterator();
+			while (iterator.hasNext() && running < maxConcurrentTasks) {
+				Task<?> queued = iterator.next();
+				if (queued.future.isDone()) {
+					iterator.remove();
+				} else if (canStart(queued.owner)) {
+					iterator.remove();
+					markStarted(queued.owner);
+					toStart.add(queued);
+				}
+			}
+		}
+		for (Task<?> next : toStart) {
+			execute(next);
+		}
+	}
+
+	private void execute(Task<?> task) {
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			// This executor was shut down after the task was started, so the task
+			// never runs and doesn't count as running
+			synchronized (this) {
+				markStopped(task.owner);
+				rejected++;
+			}
+			task.future.completeExceptionally(e);
+		}
+	}
+
+	private final class Task<T> implements Runnable {
+
+		private final UUID owner;
+		private final Supplier<T> supplier;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+		// The thread running this task, or null if it isn't running. Guarded by this
+		private Thread thread;
+
+		Task(UUID owner, Supplier<T> supplier) {
+			this.owner = owner;
+			this.supplier = supplier;
+		}
+
+		@Override
+		public void run() {
+			try {
+				// Don't bother running tasks which were cancelled while queued
+				if (start()) {
+					future.complete(supplier.get());
+				}
+			} catch (Throwable throwable) {
+				future.completeExceptionally(throwable);
+			} finally {
+				finish();
+				onFinished(this);
+			}
+		}
+
+		private synchronized boolean start() {
+			if (future.isDone()) {
+				return false;
+			}
+			thread = Thread.currentThread();
+			return true;
+		}
+
+		private synchronized void finish() {
+			thread = null;
+			// The thread is reused for other tasks, so it mustn't stay interrupted if
+			// this task was cancelled just as it finished
+			Thread.interrupted();
+		}
+
+		synchronized void interrupt() {
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+
+	}
+
+	private static final class AsyncThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "CommandAPI Async Thread #" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}
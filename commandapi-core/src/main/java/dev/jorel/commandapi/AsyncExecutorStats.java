@@ -0,0 +1,31 @@
+package dev.jorel.commandapi;
+
+/**
+ * A snapshot of the state of the CommandAPI's {@link AsyncExecutor}.
+ *
+ * @param runningTasks   - the number of tasks which are currently running
+ * @param queuedTasks    - the number of tasks which are waiting to run
+ * @param completedTasks - the number of tasks which have finished running
+ * @param rejectedTasks  - the number of tasks which were rejected because the
+ *                       queue was full
+ * @param virtualThreads - whether tasks run on virtual threads
+ */
+public record AsyncExecutorStats(
+		/** @param runningTasks - the number of tasks which are currently running */
+		int runningTasks,
+
+		/** @param queuedTasks - the number of tasks which are waiting to run */
+		int queuedTasks,
+
+		/** @param completedTasks - the number of tasks which have finished running */
+		long completedTasks,
+
+		/**
+		 * @param rejectedTasks - the number of tasks which were rejected because the
+		 *                      queue was full
+		 */
+		long rejectedTasks,
+
+		/** @param virtualThreads - whether tasks run on virtual threads */
+		boolean virtualThreads) {
+}
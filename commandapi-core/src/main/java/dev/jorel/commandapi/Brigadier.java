@@ -121,8 +121,8 @@ public final class Brigadier {
 	 */
 	public static Command fromCommand(CommandAPICommand command) {
 		try {
-			return CommandAPIHandler.getInstance().generateCommand(command.getArguments().toArray(new Argument[0]),
-					command.getExecutor(), command.isConverted());
+			return CommandAPIHandler.getInstance().generateCommand(command.getName(),
+					command.getArguments().toArray(new Argument[0]), command.getExecutor(), command.isConverted());
 		} catch (CommandSyntaxException e) {
 			e.printStackTrace();
 		}
@@ -0,0 +1,33 @@
+package dev.jorel.commandapi;
+
+/**
+ * A snapshot of the statistics of one of the CommandAPI's caches.
+ *
+ * @param hits      - the number of lookups which found a cached value
+ * @param misses    - the number of lookups which didn't find a cached value
+ * @param evictions - the number of cached values which were removed because
+ *                  they expired or were invalidated
+ */
+public record CacheStats(
+		/** @param hits - the number of lookups which found a cached value */
+		long hits,
+
+		/** @param misses - the number of lookups which didn't find a cached value */
+		long misses,
+
+		/**
+		 * @param evictions - the number of cached values which were removed because
+		 *                  they expired or were invalidated
+		 */
+		long evictions) {
+
+	/**
+	 * @return the proportion of lookups which found a cached value, between 0 and
+	 *         1. If there have been no lookups, this is 0
+	 */
+	public double hitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+}
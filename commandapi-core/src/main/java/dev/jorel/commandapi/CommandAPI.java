@@ -20,8 +20,11 @@
  *******************************************************************************/
 package dev.jorel.commandapi;
 
-import java.util.Collections;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,6 +34,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
 
 import com.mojang.brigadier.LiteralMessage;
@@ -53,6 +57,7 @@ public final class CommandAPI {
 	static InternalConfig config;
 	static Logger logger;
 	private static boolean loaded = false;
+	private static Plugin plugin;
 
 	public static boolean isLoaded(){
 		return loaded;
@@ -181,8 +186,20 @@ public final class CommandAPI {
 	 * @param plugin the plugin that this onEnable method is called from
 	 */
 	public static void onEnable(Plugin plugin) {
+		CommandAPI.plugin = plugin;
+
 		// Prevent command registration after server has loaded
 		Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
+			// Don't leave commands from an unfinished batch unregistered. Bukkit has
+			// already copied the dispatcher's commands by now, and before 1.18.2
+			// nothing copies them again, so these commands may not be usable
+			if (CommandAPIHandler.getInstance().isBatching()) {
+				logWarning("A batch of commands was not committed before the server finished loading. "
+						+ "Call CommandAPI.commitBatch() in onLoad() or onEnable(), otherwise these commands "
+						+ "may be unknown to Bukkit on Minecraft versions before 1.18.2");
+				commitBatch();
+			}
+
 			canRegister = false;
 
 			// Sort out permissions after the server has finished registering them all
@@ -194,23 +211,174 @@ public final class CommandAPI {
 		final Listener playerJoinListener = new Listener() {
 			@EventHandler(priority = EventPriority.MONITOR)
 			public void onPlayerJoin(PlayerJoinEvent e) {
+				CommandAPIHandler.getInstance().onlinePlayers.add(e.getPlayer());
+				CommandAPIHandler.getInstance().profileCache.put(e.getPlayer().getName(), e.getPlayer().getUniqueId());
+				CommandAPIHandler.getInstance().permissionCache.invalidate(e.getPlayer());
 				CommandAPIHandler.getInstance().getNMS().resendPackets(e.getPlayer());
 			}
+
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onPlayerQuit(PlayerQuitEvent e) {
+				CommandAPIHandler.getInstance().onlinePlayers.remove(e.getPlayer());
+				CommandAPIHandler.getInstance().permissionCache.invalidate(e.getPlayer());
+				CommandAPIHandler.getInstance().suggestionRequests.remove(e.getPlayer());
+			}
 		};
 
+		CommandAPIHandler.getInstance().onlinePlayers.addOnlinePlayers();
+
+		// Reading the user cache can take a while, so don't hold up the server
+		CommandAPI.getAsyncExecutor().supply(null, () -> {
+			try {
+				CommandAPIHandler.getInstance().profileCache
+						.preload(new File(Bukkit.getWorldContainer(), "usercache.json"));
+			} catch (IOException e) {
+				logWarning("Could not preload player profiles: " + e.getMessage());
+			}
+			return null;
+		}).whenComplete((result, throwable) -> {
+			if (throwable != null) {
+				logError("Could not preload player profiles: " + throwable);
+			}
+		});
+
 		Bukkit.getServer().getPluginManager().registerEvents(playerJoinListener, plugin);
 		CommandAPIHandler.getInstance().getPaper().registerReloadHandler(plugin);
 	}
 
+	/**
+	 * Disables the CommandAPI. This should be placed in your plugin's
+	 * <code>onDisable()</code> method. This shuts down the CommandAPI's
+	 * {@link AsyncExecutor}, so its asynchronous tasks don't outlive your plugin.
+	 */
+	public static void onDisable() {
+		CommandAPIHandler.getInstance().asyncExecutor.shutdown();
+	}
+
 	/**
 	 * Updates the requirements required for a given player to execute a command.
 	 * 
 	 * @param player the player whos requirements to update
 	 */
 	public static void updateRequirements(Player player) {
+		CommandAPIHandler.getInstance().permissionCache.invalidate(player);
 		CommandAPIHandler.getInstance().getNMS().resendPackets(player);
 	}
 
+	/**
+	 * Returns the statistics of the cache of permission and requirement checks.
+	 * This cache is only used if the {@code permission-cache-duration} config
+	 * option is greater than 0.
+	 * 
+	 * @return the hit, miss and eviction counts of the permission cache
+	 */
+	public static CacheStats getPermissionCacheStats() {
+		return CommandAPIHandler.getInstance().permissionCache.getStats();
+	}
+
+	/**
+	 * Returns the statistics of the cache of command tree packets, which are sent
+	 * to players when they join or when their requirements are updated. Players
+	 * who can see exactly the same commands share one packet.
+	 * 
+	 * @return the hit, miss and eviction counts of the command tree cache
+	 */
+	public static CacheStats getCommandTreeCacheStats() {
+		return CommandAPIHandler.getInstance().commandTreeCache.getStats();
+	}
+
+	/**
+	 * Returns the index of online players that the CommandAPI keeps up to date as
+	 * players join and leave. This can be used to find the players whose names
+	 * start with what has been typed, without looking at every online player.
+	 * 
+	 * @return the index of online players
+	 * @see dev.jorel.commandapi.arguments.ArgumentSuggestions#onlinePlayers(java.util.function.BiPredicate)
+	 */
+	public static OnlinePlayerIndex getOnlinePlayerIndex() {
+		return CommandAPIHandler.getInstance().onlinePlayers;
+	}
+
+	/**
+	 * Returns the cache of player profiles that
+	 * {@link dev.jorel.commandapi.arguments.AsyncOfflinePlayerArgument} uses to
+	 * find offline players without blocking the server thread.
+	 * 
+	 * @return the CommandAPI's player profile cache
+	 */
+	public static ProfileCache getProfileCache() {
+		return CommandAPIHandler.getInstance().profileCache;
+	}
+
+	/**
+	 * Returns the statistics of the cache of player profiles.
+	 * 
+	 * @return the hit, miss and eviction counts of the player profile cache
+	 */
+	public static CacheStats getProfileCacheStats() {
+		return CommandAPIHandler.getInstance().profileCache.getStats();
+	}
+
+	/**
+	 * Returns the executor that the CommandAPI uses to run blocking tasks, such as
+	 * asynchronous suggestions, off the main thread. You can use this to run your
+	 * own asynchronous suggestions, for example with
+	 * {@code CommandAPI.getAsyncExecutor().supply(info.sender(), () -> ...)}.
+	 * 
+	 * @return the CommandAPI's asynchronous task executor
+	 */
+	public static AsyncExecutor getAsyncExecutor() {
+		return CommandAPIHandler.getInstance().asyncExecutor;
+	}
+
+	/**
+	 * Returns a snapshot of the metrics recorded for every command registered by
+	 * the CommandAPI. There is one snapshot for each command and type of executor
+	 * which has been run at least once. Metrics are only recorded if the
+	 * {@code enable-metrics} config option is true.
+	 * 
+	 * @return the metrics recorded for each command, or an empty list if metrics
+	 *         are disabled
+	 */
+	public static List<CommandMetricsSnapshot> getMetrics() {
+		CommandMetrics metrics = CommandAPIHandler.getInstance().metrics;
+		return metrics == null ? List.of() : metrics.snapshot();
+	}
+
+	/**
+	 * Runs a task on the main server thread. If this is called from the main
+	 * server thread, the task is run immediately. This can be used by
+	 * asynchronous executors and suggestions to access the Bukkit API.
+	 * 
+	 * @param <T>  the type of the task's result
+	 * @param task the task to run
+	 * @return a future which completes with the result of the task once it has
+	 *         run on the main thread
+	 */
+	public static <T> CompletableFuture<T> runOnMainThread(Supplier<T> task) {
+		if (Bukkit.isPrimaryThread()) {
+			try {
+				return CompletableFuture.completedFuture(task.get());
+			} catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+		if (plugin == null) {
+			return CompletableFuture.failedFuture(new IllegalStateException(
+					"CommandAPI.onEnable() must be called before running tasks on the main thread"));
+		}
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		Bukkit.getScheduler().runTask(plugin, () -> {
+			try {
+				result.complete(task.get());
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
 	/**
 	 * Reloads all of the datapacks that are on the server. This should be used if
 	 * you change a datapack and want to reload a server. Execute this method after
@@ -240,6 +408,34 @@ public final class CommandAPI {
 		return canRegister;
 	}
 
+	/**
+	 * Starts batching command registration. Commands registered after this method
+	 * is called are collected into a single command graph and are only merged into
+	 * Brigadier's dispatcher (and written to the dispatcher file) when
+	 * {@link CommandAPI#commitBatch()} is called. This is much faster than
+	 * registering a large number of commands one at a time.
+	 */
+	public static void beginBatch() {
+		CommandAPIHandler.getInstance().beginBatch();
+	}
+
+	/**
+	 * Registers all commands that were registered since
+	 * {@link CommandAPI#beginBatch()} was called. This must be called in the same
+	 * <code>onLoad()</code> or <code>onEnable()</code> method that began the
+	 * batch. Any batch which has not been committed when the server has finished
+	 * loading is committed automatically with a warning, but Bukkit doesn't know
+	 * about these commands on Minecraft versions before 1.18.2, so players can't
+	 * run them.
+	 */
+	public static void commitBatch() {
+		try {
+			CommandAPIHandler.getInstance().commitBatch();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Unregisters a command
 	 * 
@@ -282,6 +478,6 @@ public final class CommandAPI {
 	 *         registered by the CommandAPI so far. The returned list is immutable.
 	 */
 	public static List<RegisteredCommand> getRegisteredCommands() {
-		return Collections.unmodifiableList(CommandAPIHandler.getInstance().registeredCommands);
+		return CommandAPIHandler.getInstance().registeredCommands.getCommands();
 	}
 }
@@ -35,6 +35,17 @@ public class CommandAPIConfig {
 	boolean silentLogs = false;
 	boolean useLatestNMSVersion = false;
 	String missingExecutorImplementationMessage = "This command has no implementations for %s";
+	int convertedCommandExpansionLimit = 10000;
+	long permissionCacheDuration = 0;
+	long suggestionTimeout = 0;
+	boolean useVirtualThreads = true;
+	int asyncMaxConcurrentTasks = 16;
+	int asyncMaxConcurrentTasksPerPlayer = 2;
+	int asyncMaxQueuedTasks = 256;
+	boolean enableMetrics = false;
+	int profileCacheSize = 1000;
+	long profileCacheDuration = 3600000;
+	ProfileRepository profileRepository = ProfileRepository.bukkit();
 
 	// NBT API
 	Class<?> nbtContainerClass = null;
@@ -97,6 +108,153 @@ public class CommandAPIConfig {
 		return this;
 	}
 
+	/**
+	 * Sets the maximum number of times that a single converted command can be run
+	 * when entity selectors in its arguments are expanded. For example,
+	 * {@code /convertedcmd @e @e} runs the converted command once for every pair
+	 * of entities. If a command would run more times than this, it fails with an
+	 * error instead of running at all. A negative value disables this limit.
+	 * 
+	 * @param value the maximum number of times a converted command can be run
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig convertedCommandExpansionLimit(int value) {
+		this.convertedCommandExpansionLimit = value;
+		return this;
+	}
+
+	/**
+	 * Sets how long the results of permission and requirement checks are cached
+	 * for each player, in milliseconds. Cached results for a player are discarded
+	 * when {@link CommandAPI#updateRequirements(org.bukkit.entity.Player)} is
+	 * called for them, so if this is enabled, you should call that method whenever
+	 * a player's permissions or requirements change. A value of 0 disables this
+	 * cache.
+	 * 
+	 * @param value how long permission and requirement checks are cached for, in
+	 *              milliseconds
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig permissionCacheDuration(long value) {
+		this.permissionCacheDuration = value;
+		return this;
+	}
+
+	/**
+	 * Sets how long the CommandAPI waits for suggestions for an argument, in
+	 * milliseconds. If suggestions (for example, asynchronous suggestions) take
+	 * longer than this, the player is sent the suggestions which have been
+	 * computed so far. A value of 0 disables this timeout.
+	 * 
+	 * @param value how long to wait for suggestions, in milliseconds
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig suggestionTimeout(long value) {
+		this.suggestionTimeout = value;
+		return this;
+	}
+
+	/**
+	 * Sets whether the CommandAPI's asynchronous tasks (such as asynchronous
+	 * suggestions) should run on virtual threads, if they are available. If this
+	 * is false or virtual threads are not available, a thread pool is used
+	 * instead.
+	 * 
+	 * @param value whether virtual threads should be used
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig useVirtualThreads(boolean value) {
+		this.useVirtualThreads = value;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of the CommandAPI's asynchronous tasks which can run
+	 * at the same time. If a thread pool is used, this is also its size.
+	 * 
+	 * @param value the maximum number of asynchronous tasks to run at once
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig asyncMaxConcurrentTasks(int value) {
+		this.asyncMaxConcurrentTasks = value;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of the CommandAPI's asynchronous tasks which can run
+	 * at the same time for a single player. A value of 0 disables this limit.
+	 * 
+	 * @param value the maximum number of asynchronous tasks to run at once for
+	 *              each player
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig asyncMaxConcurrentTasksPerPlayer(int value) {
+		this.asyncMaxConcurrentTasksPerPlayer = value;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of the CommandAPI's asynchronous tasks which can wait
+	 * to be run. If more tasks are submitted, they are rejected.
+	 * 
+	 * @param value the maximum number of queued asynchronous tasks
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig asyncMaxQueuedTasks(int value) {
+		this.asyncMaxQueuedTasks = value;
+		return this;
+	}
+
+	/**
+	 * Sets whether the CommandAPI should record metrics about the commands it
+	 * executes, such as how many times each command was run, how many times it
+	 * failed and how long it took. These metrics can be retrieved using
+	 * {@link CommandAPI#getMetrics()}.
+	 * 
+	 * @param value whether command metrics should be recorded
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig enableMetrics(boolean value) {
+		this.enableMetrics = value;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of player profiles that the CommandAPI caches for
+	 * {@link dev.jorel.commandapi.arguments.AsyncOfflinePlayerArgument}. When the
+	 * cache is full, the least recently used profiles are removed.
+	 * 
+	 * @param value the maximum number of player profiles to cache
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig profileCacheSize(int value) {
+		this.profileCacheSize = value;
+		return this;
+	}
+
+	/**
+	 * Sets how long the CommandAPI caches player profiles for, in milliseconds.
+	 * 
+	 * @param value how long player profiles are cached for, in milliseconds
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig profileCacheDuration(long value) {
+		this.profileCacheDuration = value;
+		return this;
+	}
+
+	/**
+	 * Sets the {@link ProfileRepository} which is used to look up player profiles
+	 * that aren't cached. By default, profiles are looked up using Bukkit.
+	 * 
+	 * @param value the profile repository to use
+	 * @return this CommandAPIConfig
+	 */
+	public CommandAPIConfig profileRepository(ProfileRepository value) {
+		this.profileRepository = value;
+		return this;
+	}
+
 	/**
 	 * Initializes the CommandAPI's implementation of an NBT API.
 	 * 
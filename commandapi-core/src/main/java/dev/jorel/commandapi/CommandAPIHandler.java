@@ -27,17 +27,23 @@ import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
+import jdk.jfr.EventType;
+
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandMap;
@@ -47,24 +53,30 @@ import org.bukkit.permissions.Permission;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.LiteralMessage;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.context.ParsedArgument;
+import com.mojang.brigadier.context.ParsedCommandNode;
 import com.mojang.brigadier.context.StringRange;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.LiteralCommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
 
 import dev.jorel.commandapi.arguments.Argument;
 import dev.jorel.commandapi.arguments.ArgumentSuggestions;
 import dev.jorel.commandapi.arguments.ICustomProvidedArgument;
+import dev.jorel.commandapi.arguments.IGreedyArgument;
 import dev.jorel.commandapi.arguments.LiteralArgument;
 import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+import dev.jorel.commandapi.exceptions.GreedyArgumentException;
 import dev.jorel.commandapi.nms.NMS;
 import dev.jorel.commandapi.preprocessor.RequireField;
 
@@ -142,22 +154,77 @@ public class CommandAPIHandler<CommandSourceStack> {
 		return instance;
 	}
 
-	final Map<ClassCache, Field> FIELDS = new HashMap<>();
+	/**
+	 * Replaces the instance of the CommandAPI's internal handler with one which
+	 * uses the provided NMS implementation, instead of the implementation for the
+	 * server's Minecraft version. This lets the CommandAPI run without a Minecraft
+	 * server, for example in benchmarks. The CommandAPI's configuration must be
+	 * set before this is called.
+	 * 
+	 * @param <CommandSourceStack> the command source type
+	 * @param nms                  the NMS implementation to use
+	 * @return the new instance of the CommandAPI's internal handler
+	 */
+	static <CommandSourceStack> CommandAPIHandler<CommandSourceStack> initialize(NMS<CommandSourceStack> nms) {
+		CommandAPIHandler<CommandSourceStack> handler = new CommandAPIHandler<>(nms);
+		instance = handler;
+		return handler;
+	}
+
+	// Flight recorder event types which are checked on every execution, parsed
+	// argument and suggestion request, so no event is allocated while they're off
+	private static final EventType COMMAND_EXECUTION_EVENT = EventType.getEventType(CommandExecutionEvent.class);
+	private static final EventType ARGUMENT_PARSE_EVENT = EventType.getEventType(ArgumentParseEvent.class);
+	private static final EventType SUGGESTION_REQUEST_EVENT = EventType.getEventType(SuggestionRequestEvent.class);
+
+	final Map<ClassCache, Field> FIELDS = new ConcurrentHashMap<>();
 	final TreeMap<String, CommandPermission> PERMISSIONS_TO_FIX = new TreeMap<>();
 	final NMS<CommandSourceStack> NMS;
 	final CommandDispatcher<CommandSourceStack> DISPATCHER;
-	final List<RegisteredCommand> registeredCommands; // Keep track of what has been registered for type checking
+	final RegisteredCommandIndex registeredCommands; // Keep track of what has been registered for type checking
+	final PermissionCache permissionCache;
+	final SuggestionRequestTracker suggestionRequests;
+	final AsyncExecutor asyncExecutor;
+	final CommandMetrics metrics; // Null if metrics are disabled
+	final CommandTreeCache commandTreeCache;
+	final OnlinePlayerIndex onlinePlayers;
+	final ProfileCache profileCache;
 	private PaperImplementations paper;
+	private RootCommandNode<CommandSourceStack> batchRoot; // Non-null while a registration batch is in progress
+
+	// Nodes which are children of more than one node, and how many parents they
+	// have. Nodes with a single parent aren't included
+	private final Map<CommandNode<CommandSourceStack>, Integer> sharedNodes = new IdentityHashMap<>();
 
 	private CommandAPIHandler() {
-		final String bukkit = Bukkit.getServer().toString();
-		NMS = CommandAPIVersionHandler
-				.getNMS(bukkit.substring(bukkit.indexOf("minecraftVersion") + 17, bukkit.length() - 1));
+		this(getNMSForServer());
+	}
+
+	private CommandAPIHandler(NMS<CommandSourceStack> nms) {
+		NMS = nms;
 		DISPATCHER = NMS.getBrigadierDispatcher();
-		registeredCommands = new ArrayList<>();
+		registeredCommands = new RegisteredCommandIndex();
+		permissionCache = new PermissionCache(CommandAPI.getConfiguration().getPermissionCacheDuration());
+		suggestionRequests = new SuggestionRequestTracker(CommandAPI.getConfiguration().getSuggestionTimeout());
+		asyncExecutor = new AsyncExecutor(CommandAPI.getConfiguration().shouldUseVirtualThreads(),
+				CommandAPI.getConfiguration().getAsyncMaxConcurrentTasks(),
+				CommandAPI.getConfiguration().getAsyncMaxConcurrentTasksPerPlayer(),
+				CommandAPI.getConfiguration().getAsyncMaxQueuedTasks());
+		metrics = CommandAPI.getConfiguration().shouldEnableMetrics() ? new CommandMetrics() : null;
+		commandTreeCache = new CommandTreeCache();
+		onlinePlayers = new OnlinePlayerIndex();
+		profileCache = new ProfileCache(CommandAPI.getConfiguration().getProfileRepository(),
+				CommandAPI.getConfiguration().getProfileCacheSize(),
+				CommandAPI.getConfiguration().getProfileCacheDuration());
 		this.paper = new PaperImplementations(false, NMS);
 	}
 
+	private static <CommandSourceStack> NMS<CommandSourceStack> getNMSForServer() {
+		final String bukkit = Bukkit.getServer().toString();
+		return CommandAPIVersionHandler
+				.getNMS(bukkit.substring(bukkit.indexOf("minecraftVersion") + 17, bukkit.length() - 1));
+	}
+
 	void checkDependencies() {
 		try {
 			Class.forName("com.mojang.brigadier.CommandDispatcher");
@@ -229,6 +296,15 @@ public class CommandAPIHandler<CommandSourceStack> {
 		return this.paper;
 	}
 
+	/**
+	 * Returns the cache of command tree packets sent to players
+	 * 
+	 * @return the cache of command tree packets
+	 */
+	public CommandTreeCache getCommandTreeCache() {
+		return this.commandTreeCache;
+	}
+
 	/**
 	 * Unregisters a command from the NMS command graph.
 	 * 
@@ -243,9 +319,20 @@ public class CommandAPIHandler<CommandSourceStack> {
 			CommandAPI.logInfo("Unregistering command /" + commandName);
 		}
 
+		unregister(DISPATCHER.getRoot(), commandName, force);
+
+		// Commands which haven't been committed yet shouldn't be committed later
+		if (batchRoot != null) {
+			unregister(batchRoot, commandName, force);
+		}
+
+		commandTreeCache.invalidate();
+	}
+
+	private void unregister(CommandNode<CommandSourceStack> root, String commandName, boolean force) {
 		// Get the child nodes from the loaded dispatcher class
 		Map<String, CommandNode<?>> commandNodeChildren = (Map<String, CommandNode<?>>) COMMANDNODE_CHILDREN
-				.get(DISPATCHER.getRoot());
+				.get(root);
 
 		if (force) {
 			// Remove them by force
@@ -258,13 +345,14 @@ public class CommandAPIHandler<CommandSourceStack> {
 
 		// Otherwise, just remove them normally
 		commandNodeChildren.remove(commandName);
-		((Map<String, CommandNode<?>>) COMMANDNODE_LITERALS.get(DISPATCHER.getRoot())).remove(commandName);
-		((Map<String, CommandNode<?>>) COMMANDNODE_ARGUMENTS.get(DISPATCHER.getRoot())).remove(commandName);
+		((Map<String, CommandNode<?>>) COMMANDNODE_LITERALS.get(root)).remove(commandName);
+		((Map<String, CommandNode<?>>) COMMANDNODE_ARGUMENTS.get(root)).remove(commandName);
 	}
 
 	/**
 	 * Generates a command to be registered by the CommandAPI.
 	 * 
+	 * @param commandName the name of the command, used to record its metrics
 	 * @param args       set of ordered argument pairs which contain the prompt text
 	 *                   and their argument types
 	 * @param actualArgs
@@ -272,11 +360,12 @@ public class CommandAPIHandler<CommandSourceStack> {
 	 * @return a brigadier command which is registered internally
 	 * @throws CommandSyntaxException if an error occurs when the command is ran
 	 */
-	Command<CommandSourceStack> generateCommand(Argument<?>[] args,
+	Command<CommandSourceStack> generateCommand(String commandName, Argument<?>[] args,
 			CustomCommandExecutor<? extends CommandSender> executor, boolean converted) throws CommandSyntaxException {
+		final CommandMetrics.Recorder recorder = metrics == null ? null : metrics.getRecorder(commandName);
 
 		// Generate our command from executor
-		return (cmdCtx) -> {
+		Command<CommandSourceStack> command = (cmdCtx) -> {
 			CommandSender sender = NMS.getSenderForCommand(cmdCtx, executor.isForceNative());
 			if (converted) {
 				Object[] argObjs = argsToObjectArr(cmdCtx, args);
@@ -294,24 +383,53 @@ public class CommandAPIHandler<CommandSourceStack> {
 				for (int i = 0; i < args.length; i++) {
 					entityNamesForArgs[i] = args[i].getEntityNames(argObjs[i]);
 				}
-				List<List<String>> product = CartesianProduct.getDescartes(Arrays.asList(entityNamesForArgs));
-
-				// These objects in obj are List<String>
-				for (List<String> strings : product) {
-					// We assume result.length == strings.size
-					if (result.length == strings.size()) {
-						for (int i = 0; i < result.length; i++) {
-							if (strings.get(i) != null) {
-								result[i] = strings.get(i);
-							}
-						}
-					}
-					resultValue += executor.execute(sender, result);
+				CartesianProduct product = new CartesianProduct(entityNamesForArgs);
+
+				// Don't let entity selectors make this command run an unreasonable number
+				// of times
+				int expansionLimit = CommandAPI.getConfiguration().getConvertedCommandExpansionLimit();
+				if (expansionLimit >= 0 && product.size() > expansionLimit) {
+					throw new SimpleCommandExceptionType(new LiteralMessage("This command would run "
+							+ product.size() + " times, which is more than the limit of " + expansionLimit)).create();
+				}
+
+				// Each combination is written into the same buffer. We assume that
+				// result.length == args.length, otherwise we run the raw input as it is
+				String[] buffer = result.length == args.length ? result : null;
+				while (product.next(buffer)) {
+					resultValue += executor.execute(sender, result, recorder);
 				}
 
 				return resultValue;
 			} else {
-				return executor.execute(sender, argsToObjectArr(cmdCtx, args));
+				return executor.execute(sender, argsToObjectArr(cmdCtx, args), recorder);
+			}
+		};
+
+		// Record a flight recorder event for each execution
+		return (cmdCtx) -> {
+			if (!COMMAND_EXECUTION_EVENT.isEnabled()) {
+				return command.run(cmdCtx);
+			}
+			CommandExecutionEvent event = new CommandExecutionEvent();
+			event.begin();
+			int result = 0;
+			boolean succeeded = false;
+			try {
+				result = command.run(cmdCtx);
+				succeeded = true;
+				return result;
+			} finally {
+				event.end();
+				if (event.shouldCommit()) {
+					event.commandName = commandName;
+					// Some sources (such as unsupported proxies) don't have a Bukkit sender
+					CommandSender sender = NMS.getCommandSenderFromCSS(cmdCtx.getSource());
+					event.senderType = sender == null ? null : sender.getClass();
+					event.result = result;
+					event.succeeded = succeeded;
+					event.commit();
+				}
 			}
 		};
 	}
@@ -326,38 +444,134 @@ public class CommandAPIHandler<CommandSourceStack> {
 	 */
 	Object[] argsToObjectArr(CommandContext<CommandSourceStack> cmdCtx, Argument<?>[] args)
 			throws CommandSyntaxException {
-		// Array for arguments for executor
-		List<Object> argList = new ArrayList<>();
+		return parseArguments(cmdCtx, args, args.length, false);
+	}
 
-		// Populate array
-		for (Argument<?> argument : args) {
-			if (argument.isListed()) {
-				argList.add(parseArgument(cmdCtx, argument.getNodeName(), argument, args));
+	/**
+	 * Parses the first {@code count} arguments of {@code args} in a single pass.
+	 * Each listed argument is parsed exactly once and is given the results of the
+	 * listed arguments before it as its previous arguments, so a command with N
+	 * arguments performs N parses instead of re-parsing its prefix for every
+	 * argument.
+	 * 
+	 * @param cmdCtx  the command context
+	 * @param args    the arguments of the command
+	 * @param count   the number of arguments (from the start of {@code args}) to
+	 *                parse
+	 * @param lenient if true, arguments which cannot be parsed from this context
+	 *                (for example, in redirected commands) are set to null
+	 *                instead of propagating the exception
+	 * @return the parsed values of the listed arguments, in order
+	 * @throws CommandSyntaxException if parsing fails
+	 */
+	Object[] parseArguments(CommandContext<CommandSourceStack> cmdCtx, Argument<?>[] args, int count,
+			boolean lenient) throws CommandSyntaxException {
+		int listedCount = 0;
+		for (int i = 0; i < count; i++) {
+			if (args[i].isListed()) {
+				listedCount++;
 			}
 		}
 
-		return argList.toArray();
+		Object[] results = new Object[listedCount];
+		int parsed = 0;
+		for (int i = 0; i < count; i++) {
+			Argument<?> argument = args[i];
+			if (!argument.isListed()) {
+				continue;
+			}
+
+			// The previous arguments are a view of everything parsed so far
+			Object[] previousArgs = Arrays.copyOf(results, parsed);
+			Object result;
+			if (lenient) {
+				try {
+					result = argument instanceof MultiLiteralArgument multiLiteralArgument
+							? findUsedLiteral(cmdCtx, multiLiteralArgument, i)
+							: parseArgument(cmdCtx, args, i, previousArgs);
+				} catch (IllegalArgumentException e) {
+					/*
+					 * Redirected commands don't parse previous arguments properly. Simplest way to
+					 * determine what we should do is simply set it to null, since there's nothing
+					 * else we can do. I thought about letting this simply be an empty array, but
+					 * then it's even more annoying to deal with - I wouldn't expect an array of
+					 * size n to suddenly, randomly be 0, but I would expect random NPEs because
+					 * let's be honest, this is Java we're dealing with.
+					 */
+					result = null;
+				}
+			} else {
+				result = parseArgument(cmdCtx, args, i, previousArgs);
+			}
+			results[parsed++] = result;
+		}
+		return results;
 	}
 
-	/**
-	 * Parses an argument and converts it into its standard Bukkit type (as defined
-	 * in NMS.java)
-	 * 
-	 * @param type   the argument type
-	 * @param cmdCtx the command context
-	 * @param key    the key (declared in arguments)
-	 * @param value  the value (the argument declared in arguments)
-	 * @param sender the command sender
-	 * @return the standard Bukkit type
-	 * @throws CommandSyntaxException
-	 */
-	Object parseArgument(CommandContext<CommandSourceStack> cmdCtx, String key, Argument<?> value, Argument<?>[] args)
-			throws CommandSyntaxException {
-		if (value.isListed()) {
-			return value.parseArgument(NMS, cmdCtx, key, generatePreviousArguments(cmdCtx, args, key));
+	// Parses args[index]. MultiLiteralArguments aren't parsed by Brigadier, so the
+	// literal which was used is read from the command context's nodes instead
+	private Object parseArgument(CommandContext<CommandSourceStack> cmdCtx, Argument<?>[] args, int index,
+			Object[] previousArgs) throws CommandSyntaxException {
+		Argument<?> argument = args[index];
+		if (argument instanceof MultiLiteralArgument multiLiteralArgument) {
+			String literal = findUsedLiteral(cmdCtx, multiLiteralArgument, index);
+			if (literal == null) {
+				throw new SimpleCommandExceptionType(new LiteralMessage(
+						"None of the literals " + String.join(", ", multiLiteralArgument.getLiterals()) + " were used"))
+						.create();
+			}
+			return literal;
+		} else if (!ARGUMENT_PARSE_EVENT.isEnabled()) {
+			return argument.parseArgument(NMS, cmdCtx, argument.getNodeName(), previousArgs);
 		} else {
-			return null;
+			ArgumentParseEvent event = new ArgumentParseEvent();
+			event.begin();
+			Object result = argument.parseArgument(NMS, cmdCtx, argument.getNodeName(), previousArgs);
+			event.end();
+			if (event.shouldCommit()) {
+				event.argumentClass = argument.getClass();
+				event.nodeName = argument.getNodeName();
+				event.commit();
+			}
+			return result;
+		}
+	}
+
+	/*
+	 * Finds which literal of a MultiLiteralArgument was used, or returns null if
+	 * none of them were. For commands built by the CommandAPI, the first node is
+	 * the command's name, followed by one node per argument, so the node after
+	 * the argument's index is checked first. Trees built by hand and redirected
+	 * commands can have a different layout, so every other node is searched too.
+	 */
+	private static String findUsedLiteral(CommandContext<CommandSourceStack> cmdCtx,
+			MultiLiteralArgument multiLiteralArgument, int index) {
+		List<ParsedCommandNode<CommandSourceStack>> nodes = cmdCtx.getNodes();
+		if (index + 1 < nodes.size()) {
+			String literal = matchLiteral(nodes.get(index + 1), multiLiteralArgument);
+			if (literal != null) {
+				return literal;
+			}
+		}
+		for (ParsedCommandNode<CommandSourceStack> node : nodes) {
+			String literal = matchLiteral(node, multiLiteralArgument);
+			if (literal != null) {
+				return literal;
+			}
 		}
+		return null;
+	}
+
+	private static String matchLiteral(ParsedCommandNode<CommandSourceStack> parsedNode,
+			MultiLiteralArgument multiLiteralArgument) {
+		if (parsedNode.getNode() instanceof LiteralCommandNode<?> node) {
+			for (String literal : multiLiteralArgument.getLiterals()) {
+				if (literal.equals(node.getLiteral())) {
+					return literal;
+				}
+			}
+		}
+		return null;
 	}
 
 	//////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -406,8 +620,23 @@ public class CommandAPIHandler<CommandSourceStack> {
 			}
 		}
 
-		return (CommandSourceStack css) -> permissionCheck(NMS.getCommandSenderFromCSS(css), finalPermission,
-				requirements);
+		return permissionPredicate(finalPermission, requirements);
+	}
+
+	/**
+	 * Creates a predicate for a node's {@code requires} method which checks that a
+	 * sender satisfies a permission and requirements. Results are cached per
+	 * player by the {@link PermissionCache}.
+	 * 
+	 * @param permission   the permission required to use the node
+	 * @param requirements the requirements to use the node
+	 * @return a predicate for the node's requirements
+	 */
+	Predicate<CommandSourceStack> permissionPredicate(CommandPermission permission,
+			Predicate<CommandSender> requirements) {
+		final PermissionCache.Key key = new PermissionCache.Key(permission, requirements);
+		final Predicate<CommandSender> check = sender -> permissionCheck(sender, permission, requirements);
+		return (CommandSourceStack css) -> permissionCache.test(NMS.getCommandSenderFromCSS(css), key, check);
 	}
 
 	/**
@@ -485,141 +714,183 @@ public class CommandAPIHandler<CommandSourceStack> {
 	// SECTION: Registration //
 	//////////////////////////////////////////////////////////////////////////////////////////////////////
 
-	/*
-	 * Expands multiliteral arguments and registers all expansions of
-	 * MultiLiteralArguments throughout the provided command. Returns true if
-	 * multiliteral arguments were present (and expanded) and returns false if
-	 * multiliteral arguments were not present.
-	 */
-	private boolean expandMultiLiterals(CommandMetaData meta, final Argument<?>[] args,
-			CustomCommandExecutor<? extends CommandSender> executor, boolean converted)
-			throws CommandSyntaxException, IOException {
-
-		// "Expands" our MultiLiterals into Literals
-		for (int index = 0; index < args.length; index++) {
-			// Find the first multiLiteral in the for loop
-			if (args[index] instanceof MultiLiteralArgument superArg) {
-
-				// Add all of its entries
-				for (int i = 0; i < superArg.getLiterals().length; i++) {
-					LiteralArgument litArg = (LiteralArgument) new LiteralArgument(superArg.getLiterals()[i])
-							.setListed(superArg.isListed()).withPermission(superArg.getArgumentPermission())
-							.withRequirement(superArg.getRequirements());
-
-					// Reconstruct the list of arguments and place in the new literals
-					Argument<?>[] newArgs = Arrays.copyOf(args, args.length);
-					newArgs[index] = litArg;
-					register(meta, newArgs, executor, converted);
-				}
-				return true;
-			}
-		}
-		return false;
-	}
-
 	// Prevent nodes of the same name but with different types:
 	// allow /race invite<LiteralArgument> player<PlayerArgument>
 	// disallow /race invite<LiteralArgument> player<EntitySelectorArgument>
 	// Return true if conflict was present, otherwise return false
 	private boolean hasCommandConflict(String commandName, Argument<?>[] args, String argumentsAsString) {
-		List<String[]> regArgs = new ArrayList<>();
-		for (RegisteredCommand rCommand : registeredCommands) {
-			if (rCommand.commandName().equals(commandName)) {
-				for (String str : rCommand.argsAsStr()) {
-					regArgs.add(str.split(":"));
-				}
-				// We just find the first entry that causes a conflict. If this
-				// were some industry-level code, we would probably generate a
-				// list of all commands first, then check for command conflicts
-				// all in one go so we can display EVERY command conflict for
-				// all commands, but this works perfectly and isn't important.
-				break;
-			}
+		List<String> conflicts = registeredCommands.getConflicts(commandName, args);
+		if (conflicts.isEmpty()) {
+			return false;
 		}
-		for (int i = 0; i < args.length; i++) {
-			// Avoid IAOOBEs
-			if (regArgs.size() == i && regArgs.size() < args.length) {
-				break;
-			}
-			// We want to ensure all node names are the same
-			if (!regArgs.get(i)[0].equals(args[i].getNodeName())) {
-				break;
-			}
-			// This only applies to the last argument
-			if (i == args.length - 1) {
-				if (!regArgs.get(i)[1].equals(args[i].getClass().getSimpleName())) {
-					// Command it conflicts with
-					StringBuilder builder2 = new StringBuilder();
-					for (String[] arg : regArgs) {
-						builder2.append(arg[0]).append("<").append(arg[1]).append("> ");
-					}
 
-					CommandAPI.logError("""
-							Failed to register command:
+		// Display every command that this conflicts with
+		StringBuilder builder = new StringBuilder();
+		for (String conflict : conflicts) {
+			builder.append("  ").append(commandName).append(" ").append(conflict).append("\n");
+		}
 
-							  %s %s
+		CommandAPI.logError("""
+				Failed to register command:
 
-							Because it conflicts with this previously registered command:
+				  %s %s
 
-							  %s %s
-							""".formatted(commandName, argumentsAsString, commandName, builder2.toString()));
-					return true;
-				}
-			}
-		}
-		return false;
+				Because it conflicts with these previously registered commands:
+
+				%s""".formatted(commandName, argumentsAsString, builder.toString()));
+		return true;
 	}
 
-	// Links arg -> Executor
-	private ArgumentBuilder<CommandSourceStack, ?> generateInnerArgument(Command<CommandSourceStack> command,
+	// Gets the builders for a single argument. MultiLiteralArguments produce one
+	// literal builder for each of their literals
+	private List<ArgumentBuilder<CommandSourceStack, ?>> getArgumentBuilders(Argument<?> argument,
 			Argument<?>[] args) {
-		Argument<?> innerArg = args[args.length - 1];
-
 		// Handle Literal arguments
-		if (innerArg instanceof LiteralArgument literalArgument) {
-			return getLiteralArgumentBuilderArgument(literalArgument.getLiteral(), innerArg.getArgumentPermission(),
-					innerArg.getRequirements()).executes(command);
+		if (argument instanceof LiteralArgument literalArgument) {
+			return List.of(getLiteralArgumentBuilderArgument(literalArgument.getLiteral(),
+					argument.getArgumentPermission(), argument.getRequirements()));
+		}
+
+		// Handle MultiLiteral arguments
+		else if (argument instanceof MultiLiteralArgument multiLiteralArgument) {
+			List<ArgumentBuilder<CommandSourceStack, ?>> builders = new ArrayList<>();
+			for (String literal : multiLiteralArgument.getLiterals()) {
+				builders.add(getLiteralArgumentBuilderArgument(literal, argument.getArgumentPermission(),
+						argument.getRequirements()));
+			}
+			return builders;
 		}
 
 		// Handle arguments with built-in suggestion providers
-		else if (innerArg instanceof ICustomProvidedArgument customProvidedArg
-				&& !innerArg.getOverriddenSuggestions().isPresent()) {
-			return getRequiredArgumentBuilderWithProvider(innerArg, args,
-					NMS.getSuggestionProvider(customProvidedArg.getSuggestionProvider())).executes(command);
+		else if (argument instanceof ICustomProvidedArgument customProvidedArg
+				&& !argument.getOverriddenSuggestions().isPresent()) {
+			return List.of(getRequiredArgumentBuilderWithProvider(argument, args,
+					NMS.getSuggestionProvider(customProvidedArg.getSuggestionProvider())));
 		}
 
 		// Handle every other type of argument
 		else {
-			return getRequiredArgumentBuilderDynamic(args, innerArg).executes(command);
+			return List.of(getRequiredArgumentBuilderDynamic(args, argument));
 		}
 	}
 
-	// Links arg1 -> arg2 -> ... argN -> innermostArgument
-	private ArgumentBuilder<CommandSourceStack, ?> generateOuterArguments(
-			ArgumentBuilder<CommandSourceStack, ?> innermostArgument, Argument<?>[] args) {
-		ArgumentBuilder<CommandSourceStack, ?> outer = innermostArgument;
-		for (int i = args.length - 2; i >= 0; i--) {
-			Argument<?> outerArg = args[i];
-
-			// Handle Literal arguments
-			if (outerArg instanceof LiteralArgument literalArgument) {
-				outer = getLiteralArgumentBuilderArgument(literalArgument.getLiteral(),
-						outerArg.getArgumentPermission(), outerArg.getRequirements()).then(outer);
+	/*
+	 * Links args[index] -> ... argN -> executor and returns the nodes of
+	 * args[index]. The nodes that follow a MultiLiteralArgument are built once
+	 * and shared by each of its literals, so a command's node count grows with
+	 * the sum of its literals rather than their product.
+	 */
+	private List<CommandNode<CommandSourceStack>> generateArgumentNodes(Command<CommandSourceStack> command,
+			Argument<?>[] args, int index) {
+		List<ArgumentBuilder<CommandSourceStack, ?>> builders = getArgumentBuilders(args[index], args);
+		if (index == args.length - 1) {
+			// The innermost argument is linked to the executor
+			for (ArgumentBuilder<CommandSourceStack, ?> builder : builders) {
+				builder.executes(command);
 			}
+			return buildSharedNodes(builders, List.of());
+		}
+		return buildSharedNodes(builders, generateArgumentNodes(command, args, index + 1));
+	}
 
-			// Handle arguments with built-in suggestion providers
-			else if (outerArg instanceof ICustomProvidedArgument customProvidedArg
-					&& !outerArg.getOverriddenSuggestions().isPresent()) {
-				outer = getRequiredArgumentBuilderWithProvider(outerArg, args,
-						NMS.getSuggestionProvider(customProvidedArg.getSuggestionProvider())).then(outer);
+	/*
+	 * Builds each builder with the same child nodes. Brigadier merges a node into
+	 * an existing node with the same name when it is registered, so a command
+	 * registered later under one of the builders would also reach the others
+	 * through a shared child. To prevent this, shared children are recorded in
+	 * sharedNodes, and mergeNode copies them before anything is merged into them.
+	 */
+	private List<CommandNode<CommandSourceStack>> buildSharedNodes(
+			List<? extends ArgumentBuilder<CommandSourceStack, ?>> builders,
+			List<CommandNode<CommandSourceStack>> children) {
+		List<CommandNode<CommandSourceStack>> nodes = new ArrayList<>(builders.size());
+		for (ArgumentBuilder<CommandSourceStack, ?> builder : builders) {
+			for (CommandNode<CommandSourceStack> child : children) {
+				builder.then(child);
 			}
+			nodes.add(builder.build());
+		}
+		for (CommandNode<CommandSourceStack> child : children) {
+			addParents(child, builders.size() - 1);
+		}
+		return nodes;
+	}
+
+	// Records that a node has gained parents
+	private void addParents(CommandNode<CommandSourceStack> node, int parents) {
+		if (parents > 0) {
+			sharedNodes.merge(node, 1 + parents, (count, ignored) -> count + parents);
+		}
+	}
+
+	// Records that a node has lost a parent. Returns true if it still has a parent
+	private boolean removeParent(CommandNode<CommandSourceStack> node) {
+		Integer count = sharedNodes.get(node);
+		if (count == null) {
+			return false;
+		} else if (count == 2) {
+			sharedNodes.remove(node);
+		} else {
+			sharedNodes.put(node, count - 1);
+		}
+		return true;
+	}
 
-			// Handle every other type of argument
-			else {
-				outer = getRequiredArgumentBuilderDynamic(args, outerArg).then(outer);
+	/*
+	 * Adds a node to a parent like CommandNode#addChild: if the parent already
+	 * has a child with the same name, the node's command and children are merged
+	 * into that child instead. Unlike addChild, a shared child is first replaced
+	 * with a copy that only belongs to this parent, so the merge doesn't reach
+	 * the child's other parents. Only the nodes on the path of the merge are
+	 * copied, and the copies keep sharing everything below them.
+	 */
+	private void mergeNode(CommandNode<CommandSourceStack> parent, CommandNode<CommandSourceStack> node) {
+		CommandNode<CommandSourceStack> existing = parent.getChild(node.getName());
+		if (existing == null) {
+			parent.addChild(node);
+			return;
+		} else if (existing == node) {
+			return;
+		}
+		if (sharedNodes.containsKey(existing)) {
+			existing = unshareChild(parent, existing);
+		}
+
+		// The node itself is discarded. If it's still used elsewhere, its children
+		// gain the existing node as another parent
+		boolean stillUsed = removeParent(node);
+		if (node.getCommand() != null) {
+			// Merging a childless copy only replaces the existing node's command
+			parent.addChild(node.createBuilder().build());
+		}
+		for (CommandNode<CommandSourceStack> child : node.getChildren()) {
+			if (stillUsed) {
+				addParents(child, 1);
 			}
+			mergeNode(existing, child);
 		}
-		return outer;
+	}
+
+	// Replaces a shared child of a node with a copy which only that node uses
+	@SuppressWarnings("unchecked")
+	private CommandNode<CommandSourceStack> unshareChild(CommandNode<CommandSourceStack> parent,
+			CommandNode<CommandSourceStack> shared) {
+		ArgumentBuilder<CommandSourceStack, ?> builder = shared.createBuilder();
+		for (CommandNode<CommandSourceStack> child : shared.getChildren()) {
+			builder.then(child);
+			addParents(child, 1);
+		}
+		CommandNode<CommandSourceStack> copy = builder.build();
+		removeParent(shared);
+
+		// Replacing the entries keeps the order of the parent's children
+		((Map<String, CommandNode<CommandSourceStack>>) COMMANDNODE_CHILDREN.get(parent)).put(copy.getName(), copy);
+		if (copy instanceof LiteralCommandNode) {
+			((Map<String, CommandNode<CommandSourceStack>>) COMMANDNODE_LITERALS.get(parent)).put(copy.getName(), copy);
+		} else {
+			((Map<String, CommandNode<CommandSourceStack>>) COMMANDNODE_ARGUMENTS.get(parent)).put(copy.getName(), copy);
+		}
+		return copy;
 	}
 
 	// Builds our NMS command using the given arguments for this method, then
@@ -627,40 +898,227 @@ public class CommandAPIHandler<CommandSourceStack> {
 	void register(CommandMetaData meta, final Argument<?>[] args,
 			CustomCommandExecutor<? extends CommandSender> executor, boolean converted)
 			throws CommandSyntaxException, IOException {
+		CommandRegistrationEvent event = new CommandRegistrationEvent();
+		event.begin();
 
-		// "Expands" our MultiLiterals into Literals
-		if (expandMultiLiterals(meta, args, executor, converted)) {
+		// Handle command conflicts and keep track of what we've registered
+		if (!addRegisteredCommands(meta, args)) {
 			return;
 		}
 
-		// Create a list of argument names
+		// Generate the actual command
+		Command<CommandSourceStack> command = generateCommand(meta.commandName, args, executor, converted);
+
+		/*
+		 * The innermost argument needs to be connected to the executor. Then that
+		 * argument needs to be connected to the previous argument etc. Then the first
+		 * argument needs to be connected to the command name, so we get: CommandName ->
+		 * Args1 -> Args2 -> ... -> ArgsN -> Executor
+		 */
+		if (args.length == 0) {
+			// Link command name to the executor
+			registerCommandNode(meta, command, List.of());
+			commitRegistrationEvent(event, meta, List.of());
+		} else {
+			// Generate all of the arguments, following each other and finally linking to
+			// the executor. Link command name to first argument and register
+			List<CommandNode<CommandSourceStack>> children = generateArgumentNodes(command, args, 0);
+			registerCommandNode(meta, null, children);
+			commitRegistrationEvent(event, meta, children);
+		}
+	}
+
+	/*
+	 * Registers a CommandTree. The whole tree is validated first, so an invalid
+	 * tree doesn't leave any of its branches registered. Then conflict checking
+	 * and help metadata are handled for each executable branch in a single
+	 * depth-first walk, and finally the nodes of every branch that is left are
+	 * built. Each argument in the tree becomes one node (or one node per literal
+	 * for MultiLiteralArguments, which share the nodes below them).
+	 */
+	void register(CommandMetaData meta, CustomCommandExecutor<? extends CommandSender> executor,
+			List<ArgumentTree> branches) throws CommandSyntaxException, IOException {
+		List<Argument<?>> path = new ArrayList<>();
+		for (ArgumentTree branch : branches) {
+			validateTree(branch, path);
+		}
+
+		CommandRegistrationEvent event = new CommandRegistrationEvent();
+		event.begin();
+
+		Command<CommandSourceStack> command = null;
+		if (executor.hasAnyExecutors() && addRegisteredCommands(meta, new Argument<?>[0])) {
+			command = generateCommand(meta.commandName, new Argument<?>[0], executor, false);
+		}
+
+		List<TreeBranch> registeredBranches = new ArrayList<>();
+		for (ArgumentTree branch : branches) {
+			TreeBranch registeredBranch = registerTreeBranch(meta, branch, path);
+			if (registeredBranch != null) {
+				registeredBranches.add(registeredBranch);
+			}
+		}
+
+		// Nothing in this tree can be executed
+		if (command == null && registeredBranches.isEmpty()) {
+			return;
+		}
+		List<CommandNode<CommandSourceStack>> children = new ArrayList<>();
+		for (TreeBranch branch : registeredBranches) {
+			children.addAll(generateTreeNodes(branch));
+		}
+		registerCommandNode(meta, command, children);
+		commitRegistrationEvent(event, meta, children);
+	}
+
+	private void commitRegistrationEvent(CommandRegistrationEvent event, CommandMetaData meta,
+			List<CommandNode<CommandSourceStack>> children) {
+		event.end();
+		if (event.shouldCommit()) {
+			// The command's literal, one literal per alias, and the argument nodes that
+			// they all share
+			Set<CommandNode<CommandSourceStack>> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (CommandNode<CommandSourceStack> child : children) {
+				collectNodes(child, nodes);
+			}
+			event.commandName = meta.commandName;
+			event.nodeCount = 1 + meta.aliases.length + nodes.size();
+			event.commit();
+		}
+	}
+
+	private static <S> void collectNodes(CommandNode<S> node, Set<CommandNode<S>> nodes) {
+		if (nodes.add(node)) {
+			for (CommandNode<S> child : node.getChildren()) {
+				collectNodes(child, nodes);
+			}
+		}
+	}
+
+	// Greedy arguments have to be the last argument of every branch
+	private void validateTree(ArgumentTree tree, List<Argument<?>> path) {
+		path.add(tree.argument);
+		try {
+			if (tree.argument instanceof IGreedyArgument && !tree.arguments.isEmpty()) {
+				throw new GreedyArgumentException(path.toArray(new Argument<?>[0]));
+			}
+			for (ArgumentTree child : tree.arguments) {
+				validateTree(child, path);
+			}
+		} finally {
+			path.remove(path.size() - 1);
+		}
+	}
+
+	// A branch of a CommandTree which has been checked for conflicts and recorded
+	// in the registered commands, but whose nodes haven't been built yet
+	private record TreeBranch(Argument<?> argument, Argument<?>[] args, Command<CommandSourceStack> command,
+			List<TreeBranch> children) {
+	}
+
+	// Checks a branch of a CommandTree for conflicts and records every executable
+	// command in it. Returns null if nothing in this branch can be registered
+	private TreeBranch registerTreeBranch(CommandMetaData meta, ArgumentTree tree, List<Argument<?>> path)
+			throws CommandSyntaxException {
+		path.add(tree.argument);
+		try {
+			Argument<?>[] args = path.toArray(new Argument<?>[0]);
+
+			// Everything below a conflicting node conflicts too
+			if (registeredCommands.contains(meta.commandName)
+					&& hasCommandConflict(meta.commandName, args, describeArguments(args))) {
+				return null;
+			}
+
+			Command<CommandSourceStack> command = null;
+			if (tree.executor.hasAnyExecutors() && addRegisteredCommands(meta, args)) {
+				command = generateCommand(meta.commandName, args, tree.executor, false);
+			}
+
+			List<TreeBranch> children = new ArrayList<>();
+			for (ArgumentTree child : tree.arguments) {
+				TreeBranch branch = registerTreeBranch(meta, child, path);
+				if (branch != null) {
+					children.add(branch);
+				}
+			}
+
+			if (command == null && children.isEmpty()) {
+				return null;
+			}
+			return new TreeBranch(tree.argument, args, command, children);
+		} finally {
+			path.remove(path.size() - 1);
+		}
+	}
+
+	// Builds the nodes of a registered branch of a CommandTree. Like
+	// generateArgumentNodes, the literals of a MultiLiteralArgument share the
+	// nodes below them
+	private List<CommandNode<CommandSourceStack>> generateTreeNodes(TreeBranch branch) {
+		List<ArgumentBuilder<CommandSourceStack, ?>> builders = getArgumentBuilders(branch.argument(),
+				branch.args());
+		if (branch.command() != null) {
+			for (ArgumentBuilder<CommandSourceStack, ?> builder : builders) {
+				builder.executes(branch.command());
+			}
+		}
+		List<CommandNode<CommandSourceStack>> children = new ArrayList<>();
+		for (TreeBranch child : branch.children()) {
+			children.addAll(generateTreeNodes(child));
+		}
+		return buildSharedNodes(builders, children);
+	}
+
+	// Create a list of argument names
+	private String describeArguments(Argument<?>[] args) {
 		StringBuilder builder = new StringBuilder();
 		for (Argument<?> arg : args) {
-			builder.append(arg.getNodeName()).append("<").append(arg.getClass().getSimpleName()).append("> ");
+			builder.append(RegisteredCommandIndex.getNodeName(arg)).append("<").append(arg.getClass().getSimpleName())
+					.append("> ");
 		}
+		return builder.toString();
+	}
+
+	/*
+	 * Checks the command with the provided arguments for conflicts, then records
+	 * it as a RegisteredCommand. Returns false if the command conflicts with a
+	 * previously registered command, in which case nothing is recorded. A command
+	 * with MultiLiteralArguments is checked and recorded once, covering every
+	 * combination of its literals.
+	 */
+	private boolean addRegisteredCommands(CommandMetaData meta, Argument<?>[] args) {
+		String argumentsAsString = describeArguments(args);
 
 		// Expand metaData into named variables
 		String commandName = meta.commandName;
-		CommandPermission permission = meta.permission;
-		String[] aliases = meta.aliases;
-		Predicate<CommandSender> requirements = meta.requirements;
-		Optional<String> shortDescription = meta.shortDescription;
-		Optional<String> fullDescription = meta.fullDescription;
 
 		// Handle command conflicts
-		boolean hasRegisteredCommand = false;
-		for (RegisteredCommand rCommand : registeredCommands) {
-			hasRegisteredCommand |= rCommand.commandName().equals(commandName);
+		if (registeredCommands.contains(commandName) && hasCommandConflict(commandName, args, argumentsAsString)) {
+			return false;
 		}
-		if (hasRegisteredCommand && hasCommandConflict(commandName, args, builder.toString())) {
-			return;
-		} else {
-			List<String> argumentsString = new ArrayList<>();
-			for (Argument<?> arg : args) {
-				argumentsString.add(arg.getNodeName() + ":" + arg.getClass().getSimpleName());
-			}
-			registeredCommands.add(new RegisteredCommand(commandName, argumentsString, shortDescription, fullDescription, aliases, permission));
+		List<String> argumentsString = new ArrayList<>();
+		for (Argument<?> arg : args) {
+			argumentsString.add(RegisteredCommandIndex.getNodeName(arg) + ":" + arg.getClass().getSimpleName());
 		}
+		registeredCommands.add(new RegisteredCommand(commandName, argumentsString, meta.shortDescription,
+				meta.fullDescription, meta.aliases, meta.permission), args);
+
+		CommandAPI.logInfo("Registering command /" + commandName + " " + argumentsAsString);
+		return true;
+	}
+
+	/*
+	 * Links the command name (and its aliases) to the command's executor and/or
+	 * the nodes of its first arguments, then registers it
+	 */
+	private void registerCommandNode(CommandMetaData meta, Command<CommandSourceStack> command,
+			List<CommandNode<CommandSourceStack>> children) throws IOException {
+		// Expand metaData into named variables
+		String commandName = meta.commandName;
+		CommandPermission permission = meta.permission;
+		String[] aliases = meta.aliases;
+		Predicate<CommandSender> requirements = meta.requirements;
 
 		if (Bukkit.getPluginCommand(commandName) != null) {
 			CommandAPI.logWarning("Plugin command /" + commandName + " is registered by Bukkit ("
@@ -668,54 +1126,96 @@ public class CommandAPIHandler<CommandSourceStack> {
 					+ "). Did you forget to remove this from your plugin.yml file?");
 		}
 
-		CommandAPI.logInfo("Registering command /" + commandName + " " + builder.toString());
-
-		// Generate the actual command
-		Command<CommandSourceStack> command = generateCommand(args, executor, converted);
-
-		/*
-		 * The innermost argument needs to be connected to the executor. Then that
-		 * argument needs to be connected to the previous argument etc. Then the first
-		 * argument needs to be connected to the command name, so we get: CommandName ->
-		 * Args1 -> Args2 -> ... -> ArgsN -> Executor
-		 */
-		LiteralCommandNode<CommandSourceStack> resultantNode;
-		if (args.length == 0) {
-			// Link command name to the executor
-			resultantNode = DISPATCHER.register(getLiteralArgumentBuilder(commandName)
-					.requires(generatePermissions(commandName, permission, requirements)).executes(command));
-
-			// Register aliases
-			for (String alias : aliases) {
-				CommandAPI.logInfo("Registering alias /" + alias + " -> " + resultantNode.getName());
-				DISPATCHER.register(getLiteralArgumentBuilder(alias)
-						.requires(generatePermissions(alias, permission, requirements)).executes(command));
-			}
-		} else {
+		// The command's literal and the literal of each alias share the same
+		// child nodes
+		List<LiteralArgumentBuilder<CommandSourceStack>> builders = new ArrayList<>();
+		builders.add(getCommandLiteral(commandName, permission, requirements, command));
+		for (String alias : aliases) {
+			builders.add(getCommandLiteral(alias, permission, requirements, command));
+		}
+		List<CommandNode<CommandSourceStack>> nodes = buildSharedNodes(builders, children);
 
-			// Generate all of the arguments, following each other and finally linking to
-			// the executor
-			ArgumentBuilder<CommandSourceStack, ?> commandArguments = generateOuterArguments(
-					generateInnerArgument(command, args), args);
-
-			// Link command name to first argument and register
-			resultantNode = DISPATCHER.register(getLiteralArgumentBuilder(commandName)
-					.requires(generatePermissions(commandName, permission, requirements)).then(commandArguments));
-
-			// Register aliases
-			for (String alias : aliases) {
-				if (CommandAPI.getConfiguration().hasVerboseOutput()) {
-					CommandAPI.logInfo("Registering alias /" + alias + " -> " + resultantNode.getName());
-				}
+		registerNode(nodes.get(0));
 
-				DISPATCHER.register(getLiteralArgumentBuilder(alias)
-						.requires(generatePermissions(alias, permission, requirements)).then(commandArguments));
-			}
+		// Register aliases
+		for (int i = 0; i < aliases.length; i++) {
+			CommandAPI.logInfo("Registering alias /" + aliases[i] + " -> " + commandName);
+			registerNode(nodes.get(i + 1));
 		}
 
 		// We never know if this is "the last command" and we want dynamic (even if
 		// partial)
-		// command registration. Generate the dispatcher file!
+		// command registration. Generate the dispatcher file! If we're batching,
+		// this is done once when the batch is committed instead
+		if (batchRoot == null) {
+			commandTreeCache.invalidate();
+			generateDispatcherFile();
+		}
+	}
+
+	private LiteralArgumentBuilder<CommandSourceStack> getCommandLiteral(String commandName,
+			CommandPermission permission, Predicate<CommandSender> requirements, Command<CommandSourceStack> command) {
+		LiteralArgumentBuilder<CommandSourceStack> builder = getLiteralArgumentBuilder(commandName)
+				.requires(generatePermissions(commandName, permission, requirements));
+		if (command != null) {
+			builder.executes(command);
+		}
+		return builder;
+	}
+
+	/*
+	 * Registers a command node. Outside of a batch, this is merged straight into
+	 * the dispatcher. During a batch, it is merged into the batch's root instead,
+	 * which is merged into the dispatcher in one go by commitBatch()
+	 */
+	private void registerNode(CommandNode<CommandSourceStack> node) {
+		mergeNode(batchRoot == null ? DISPATCHER.getRoot() : batchRoot, node);
+	}
+
+	/**
+	 * Starts a registration batch. Until {@link #commitBatch()} is called,
+	 * registered commands are collected into a separate command graph instead of
+	 * being merged into the dispatcher one at a time. Calling this while a batch
+	 * is already in progress does nothing.
+	 */
+	void beginBatch() {
+		if (batchRoot == null) {
+			batchRoot = new RootCommandNode<>();
+		}
+	}
+
+	/**
+	 * Returns whether a registration batch is currently in progress
+	 * 
+	 * @return true if commands are currently being batched
+	 */
+	boolean isBatching() {
+		return batchRoot != null;
+	}
+
+	/**
+	 * Merges every command registered since {@link #beginBatch()} into the
+	 * dispatcher and generates the dispatcher file once. Calling this while no
+	 * batch is in progress does nothing.
+	 * 
+	 * @throws IOException if the dispatcher file could not be written
+	 */
+	void commitBatch() throws IOException {
+		if (batchRoot == null) {
+			return;
+		}
+
+		RootCommandNode<CommandSourceStack> batch = batchRoot;
+		batchRoot = null;
+
+		int commandCount = 0;
+		for (CommandNode<CommandSourceStack> node : batch.getChildren()) {
+			mergeNode(DISPATCHER.getRoot(), node);
+			commandCount++;
+		}
+		CommandAPI.logInfo("Committed a batch of " + commandCount + " commands");
+
+		commandTreeCache.invalidate();
 		generateDispatcherFile();
 	}
 
@@ -757,8 +1257,7 @@ public class CommandAPIHandler<CommandSourceStack> {
 	LiteralArgumentBuilder<CommandSourceStack> getLiteralArgumentBuilderArgument(String commandName,
 			CommandPermission permission, Predicate<CommandSender> requirements) {
 		LiteralArgumentBuilder<CommandSourceStack> builder = LiteralArgumentBuilder.literal(commandName);
-		return builder.requires((CommandSourceStack css) -> permissionCheck(NMS.getCommandSenderFromCSS(css),
-				permission, requirements));
+		return builder.requires(permissionPredicate(permission, requirements));
 	}
 
 	// Gets a RequiredArgumentBuilder for a DynamicSuggestedStringArgument
@@ -794,27 +1293,58 @@ public class CommandAPIHandler<CommandSourceStack> {
 				CompletableFuture<Suggestions> addedSuggestionsFuture = addedSuggestions.getSuggestions(cmdCtx,
 						builder);
 				CompletableFuture<Suggestions> providerSuggestionsFuture = provider.getSuggestions(cmdCtx, builder);
-				CompletableFuture<Suggestions> result = new CompletableFuture<>();
-				CompletableFuture.allOf(addedSuggestionsFuture, providerSuggestionsFuture).thenRun(() -> {
-					List<Suggestions> suggestions = new ArrayList<>();
-					suggestions.add(addedSuggestionsFuture.join());
-					suggestions.add(providerSuggestionsFuture.join());
-					result.complete(Suggestions.merge(cmdCtx.getInput(), suggestions));
-				});
-				return result;
+				return suggestionRequests.track(NMS.getCommandSenderFromCSS(cmdCtx.getSource()), cmdCtx.getInput(),
+						List.of(addedSuggestionsFuture, providerSuggestionsFuture));
 			};
+		} else if (argument.getOverriddenSuggestions().isPresent() && provider != null) {
+			// Track the suggestions so they can be cancelled when the sender keeps typing
+			newSuggestionsProvider = (cmdCtx, builder) -> suggestionRequests.track(
+					NMS.getCommandSenderFromCSS(cmdCtx.getSource()), cmdCtx.getInput(),
+					List.of(provider.getSuggestions(cmdCtx, builder)));
+		}
+
+		if (newSuggestionsProvider != null) {
+			newSuggestionsProvider = recordSuggestionEvents(argument, newSuggestionsProvider);
 		}
 
 		RequiredArgumentBuilder<CommandSourceStack, ?> requiredArgumentBuilder = RequiredArgumentBuilder
 				.argument(argument.getNodeName(), argument.getRawType());
 
-		return requiredArgumentBuilder.requires(css -> permissionCheck(NMS.getCommandSenderFromCSS(css),
-				argument.getArgumentPermission(), argument.getRequirements())).suggests(newSuggestionsProvider);
+		return requiredArgumentBuilder
+				.requires(permissionPredicate(argument.getArgumentPermission(), argument.getRequirements()))
+				.suggests(newSuggestionsProvider);
+	}
+
+	// Wraps a SuggestionProvider so it records a flight recorder event for each
+	// suggestion request. Asynchronous suggestions are recorded when they complete
+	private SuggestionProvider<CommandSourceStack> recordSuggestionEvents(Argument<?> argument,
+			SuggestionProvider<CommandSourceStack> provider) {
+		return (cmdCtx, builder) -> {
+			if (!SUGGESTION_REQUEST_EVENT.isEnabled()) {
+				return provider.getSuggestions(cmdCtx, builder);
+			}
+			SuggestionRequestEvent event = new SuggestionRequestEvent();
+			event.begin();
+			CompletableFuture<Suggestions> suggestions = provider.getSuggestions(cmdCtx, builder);
+			event.argumentClass = argument.getClass();
+			event.nodeName = argument.getNodeName();
+			event.prefixLength = builder.getRemaining().length();
+			event.async = !suggestions.isDone();
+			suggestions.whenComplete((result, throwable) -> {
+				event.end();
+				if (event.shouldCommit()) {
+					event.resultCount = result == null ? 0 : result.getList().size();
+					event.commit();
+				}
+			});
+			return suggestions;
+		};
 	}
 
 	static Argument<?> getArgument(Argument<?>[] args, String nodeName) {
 		for (Argument<?> arg : args) {
-			if (arg.getNodeName().equals(nodeName)) {
+			// MultiLiteralArguments don't have a node name
+			if (nodeName.equals(arg.getNodeName())) {
 				return arg;
 			}
 		}
@@ -824,32 +1354,11 @@ public class CommandAPIHandler<CommandSourceStack> {
 	Object[] generatePreviousArguments(CommandContext<CommandSourceStack> context, Argument<?>[] args, String nodeName)
 			throws CommandSyntaxException {
 		// Populate Object[], which is our previously filled arguments
-		List<Object> previousArguments = new ArrayList<>();
-
-		for (Argument<?> arg : args) {
-			if (arg.getNodeName().equals(nodeName)) {
-				break;
-			}
-
-			Object result;
-			try {
-				result = parseArgument(context, arg.getNodeName(), arg, args);
-			} catch (IllegalArgumentException e) {
-				/*
-				 * Redirected commands don't parse previous arguments properly. Simplest way to
-				 * determine what we should do is simply set it to null, since there's nothing
-				 * else we can do. I thought about letting this simply be an empty array, but
-				 * then it's even more annoying to deal with - I wouldn't expect an array of
-				 * size n to suddenly, randomly be 0, but I would expect random NPEs because
-				 * let's be honest, this is Java we're dealing with.
-				 */
-				result = null;
-			}
-			if (arg.isListed()) {
-				previousArguments.add(result);
-			}
+		int count = 0;
+		while (count < args.length && !nodeName.equals(args[count].getNodeName())) {
+			count++;
 		}
-		return previousArguments.toArray();
+		return parseArguments(context, args, count, true);
 	}
 
 	SuggestionProvider<CommandSourceStack> toSuggestions(String nodeName, Argument<?>[] args,
@@ -870,17 +1379,16 @@ public class CommandAPIHandler<CommandSourceStack> {
 
 	/**
 	 * Caches a field using reflection if it is not already cached, then return the
-	 * field of a given class. This will also make the field accessible.
+	 * field of a given class. This will also make the field accessible. This is
+	 * safe to call from any thread, but fields which are accessed often should use
+	 * a {@link dev.jorel.commandapi.nms.FieldAccessor} instead.
 	 * 
 	 * @param clazz the class where the field is declared
 	 * @param name  the name of the field
 	 * @return a Field reference
 	 */
 	public Field getField(Class<?> clazz, String name) {
-		ClassCache key = new ClassCache(clazz, name);
-		if (FIELDS.containsKey(key)) {
-			return FIELDS.get(key);
-		} else {
+		return FIELDS.computeIfAbsent(new ClassCache(clazz, name), key -> {
 			Field result = null;
 			try {
 				result = clazz.getDeclaredField(name);
@@ -888,9 +1396,8 @@ public class CommandAPIHandler<CommandSourceStack> {
 				e.printStackTrace();
 			}
 			result.setAccessible(true);
-			FIELDS.put(key, result);
 			return result;
-		}
+		});
 	}
 
 	private String generateCommandHelpPrefix(String command) {
@@ -902,15 +1409,13 @@ public class CommandAPIHandler<CommandSourceStack> {
 
 		// Generate usages
 		List<String> usages = new ArrayList<>();
-		for (RegisteredCommand rCommand : registeredCommands) {
-			if (rCommand.commandName().equals(command.commandName())) {
-				StringBuilder usageString = new StringBuilder();
-				usageString.append("/" + command.commandName() + " ");
-				for (String arg : rCommand.argsAsStr()) {
-					usageString.append("<" + arg.split(":")[0] + "> ");
-				}
-				usages.add(usageString.toString());
+		for (String[] nodeNames : registeredCommands.getArgumentNodeNames(command.commandName())) {
+			StringBuilder usageString = new StringBuilder();
+			usageString.append("/" + command.commandName() + " ");
+			for (String nodeName : nodeNames) {
+				usageString.append("<" + nodeName + "> ");
 			}
+			usages.add(usageString.toString());
 		}
 
 		// If 1 usage, put it on the same line, otherwise format like a list
@@ -926,7 +1431,7 @@ public class CommandAPIHandler<CommandSourceStack> {
 	void updateHelpForCommands() {
 		Map<String, HelpTopic> helpTopicsToAdd = new HashMap<>();
 
-		for (RegisteredCommand command : this.registeredCommands) {
+		for (RegisteredCommand command : this.registeredCommands.getCommands()) {
 			// Generate short description
 			final String shortDescription;
 			if (command.shortDescription().isPresent()) {
@@ -999,53 +1504,88 @@ public class CommandAPIHandler<CommandSourceStack> {
 	}
 
 	/**
-	 * A class to compute the Cartesian product of a number of lists. Source:
-	 * https://www.programmersought.com/article/86195393650/
+	 * A lazy iterator over the Cartesian product of a number of lists. Instead of
+	 * building every combination up front, this steps through the combinations
+	 * in order (the last list changes fastest) and writes each one into a
+	 * caller-provided buffer.
 	 */
-	private final class CartesianProduct {
+	private static final class CartesianProduct {
 
-		// Shouldn't be instantiated
-		private CartesianProduct() {
+		private final List<String>[] lists;
+		private final int[] indices;
+
+		// The lowest index whose value changed since the last step
+		private int changedFrom;
+		private boolean hasNext;
+
+		CartesianProduct(List<String>[] lists) {
+			this.lists = lists;
+			this.indices = new int[lists.length];
+			this.changedFrom = 0;
+
+			boolean hasNext = true;
+			for (List<String> list : lists) {
+				hasNext &= !list.isEmpty();
+			}
+			this.hasNext = hasNext;
 		}
 
 		/**
-		 * Returns the Cartesian product of a list of lists
+		 * Returns the number of combinations in this product, saturating at
+		 * {@link Long#MAX_VALUE}
 		 * 
-		 * @param <T>  the underlying type of the list of lists
-		 * @param list the list to calculate the Cartesian product of
-		 * @return a List of lists which represents the Cartesian product of all
-		 *         elements of the input
+		 * @return the number of combinations in this product
 		 */
-		public static final <T> List<List<T>> getDescartes(List<List<T>> list) {
-			List<List<T>> returnList = new ArrayList<>();
-			descartesRecursive(list, 0, returnList, new ArrayList<T>());
-			return returnList;
+		long size() {
+			long size = 1;
+			for (List<String> list : lists) {
+				if (list.isEmpty()) {
+					return 0;
+				}
+				if (size > Long.MAX_VALUE / list.size()) {
+					return Long.MAX_VALUE;
+				}
+				size *= list.size();
+			}
+			return size;
 		}
 
 		/**
-		 * Recursive implementation Principle: traverse sequentially from 0 of the
-		 * original list to the end
+		 * Moves on to the next combination, writing its (non-null) values into the
+		 * buffer. Only the values which have changed since the previous combination
+		 * are written.
 		 * 
-		 * @param <T>          the underlying type of the list of lists
-		 * @param originalList original list
-		 * @param position     The position of the current recursion in the original
-		 *                     list
-		 * @param returnList   return result
-		 * @param cacheList    temporarily saved list
+		 * @param buffer the buffer to write the combination into, or null to skip
+		 *               writing
+		 * @return true if there was another combination, false if every combination
+		 *         has been visited
 		 */
-		private static final <T> void descartesRecursive(List<List<T>> originalList, int position,
-				List<List<T>> returnList, List<T> cacheList) {
-			List<T> originalItemList = originalList.get(position);
-			for (int i = 0; i < originalItemList.size(); i++) {
-				// The last one reuses cacheList to save memory
-				List<T> childCacheList = (i == originalItemList.size() - 1) ? cacheList : new ArrayList<>(cacheList);
-				childCacheList.add(originalItemList.get(i));
-				if (position == originalList.size() - 1) {// Exit recursion to the end
-					returnList.add(childCacheList);
-					continue;
+		boolean next(String[] buffer) {
+			if (!hasNext) {
+				return false;
+			}
+
+			if (buffer != null) {
+				for (int i = changedFrom; i < lists.length; i++) {
+					String value = lists[i].get(indices[i]);
+					if (value != null) {
+						buffer[i] = value;
+					}
+				}
+			}
+
+			// Advance the indices like an odometer
+			int i = lists.length - 1;
+			while (i >= 0) {
+				if (++indices[i] < lists[i].size()) {
+					break;
 				}
-				descartesRecursive(originalList, position + 1, returnList, childCacheList);
+				indices[i] = 0;
+				i--;
 			}
+			changedFrom = Math.max(i, 0);
+			hasNext = i >= 0;
+			return true;
 		}
 
 	}
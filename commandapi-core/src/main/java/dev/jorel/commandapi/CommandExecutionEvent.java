@@ -0,0 +1,33 @@
+package dev.jorel.commandapi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event which is recorded when a command registered by
+ * the CommandAPI is executed. This includes parsing the command's arguments.
+ */
+@Name("dev.jorel.commandapi.CommandExecution")
+@Label("Command Execution")
+@Category("CommandAPI")
+@Description("A command registered by the CommandAPI was executed")
+final class CommandExecutionEvent extends Event {
+
+	@Label("Command Name")
+	String commandName;
+
+	@Label("Sender Type")
+	Class<?> senderType;
+
+	@Label("Result")
+	@Description("The value returned by the command, or 0 if it failed")
+	int result;
+
+	@Label("Succeeded")
+	@Description("Whether the command completed without throwing an exception")
+	boolean succeeded;
+
+}
@@ -0,0 +1,107 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.jorel.commandapi.executors.ExecutorType;
+
+/**
+ * Records how many times each registered command is run, how many times it
+ * fails and how long it takes, separately for each type of executor. Metrics
+ * are only recorded if they are enabled in the CommandAPI's configuration.
+ */
+final class CommandMetrics {
+
+	private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the recorder for a command. Commands which are registered multiple
+	 * times with different arguments share one recorder.
+	 *
+	 * @param commandName the name of the command
+	 * @return the recorder for the command
+	 */
+	Recorder getRecorder(String commandName) {
+		return recorders.computeIfAbsent(commandName, Recorder::new);
+	}
+
+	/**
+	 * @return a snapshot of the metrics for every command and executor type which
+	 *         has been run at least once
+	 */
+	List<CommandMetricsSnapshot> snapshot() {
+		List<CommandMetricsSnapshot> snapshots = new ArrayList<>();
+		for (Recorder recorder : recorders.values()) {
+			recorder.snapshot(snapshots);
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Records the metrics of a single command. The metrics for each executor type
+	 * are only created when an executor of that type is first run.
+	 */
+	static final class Recorder {
+
+		private final String commandName;
+		private final AtomicReferenceArray<ExecutorMetrics> metrics = new AtomicReferenceArray<>(
+				ExecutorType.values().length);
+
+		private Recorder(String commandName) {
+			this.commandName = commandName;
+		}
+
+		ExecutorMetrics get(ExecutorType type) {
+			ExecutorMetrics executorMetrics = metrics.get(type.ordinal());
+			if (executorMetrics == null) {
+				metrics.compareAndSet(type.ordinal(), null, new ExecutorMetrics());
+				executorMetrics = metrics.get(type.ordinal());
+			}
+			return executorMetrics;
+		}
+
+		private void snapshot(List<CommandMetricsSnapshot> snapshots) {
+			for (ExecutorType type : ExecutorType.values()) {
+				ExecutorMetrics executorMetrics = metrics.get(type.ordinal());
+				if (executorMetrics != null) {
+					snapshots.add(new CommandMetricsSnapshot(commandName, type, executorMetrics.invocations.sum(),
+							executorMetrics.syntaxFailures.sum(), executorMetrics.unexpectedFailures.sum(),
+							executorMetrics.latency.snapshot()));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * The metrics for one executor type of a command
+	 */
+	static final class ExecutorMetrics {
+
+		private final LongAdder invocations = new LongAdder();
+		private final LongAdder syntaxFailures = new LongAdder();
+		private final LongAdder unexpectedFailures = new LongAdder();
+		private final LatencyHistogram latency = new LatencyHistogram();
+
+		void recordInvocation(long nanos) {
+			invocations.increment();
+			latency.record(nanos);
+		}
+
+		void recordSyntaxFailure(long nanos) {
+			syntaxFailures.increment();
+			recordInvocation(nanos);
+		}
+
+		void recordUnexpectedFailure(long nanos) {
+			unexpectedFailures.increment();
+			recordInvocation(nanos);
+		}
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package dev.jorel.commandapi;
+
+import dev.jorel.commandapi.executors.ExecutorType;
+
+/**
+ * A snapshot of the metrics recorded for one type of executor of a command.
+ *
+ * @param commandName        - the name of the command
+ * @param executorType       - the type of executor that ran the command
+ * @param invocations        - the number of times the executor was run
+ * @param syntaxFailures     - the number of times the executor failed with a
+ *                           command syntax exception, for example by calling
+ *                           {@link CommandAPI#fail(String)}
+ * @param unexpectedFailures - the number of times the executor threw any other
+ *                           exception
+ * @param latency            - the time taken to run the executor
+ */
+public record CommandMetricsSnapshot(
+		/** @param commandName - the name of the command */
+		String commandName,
+
+		/** @param executorType - the type of executor that ran the command */
+		ExecutorType executorType,
+
+		/** @param invocations - the number of times the executor was run */
+		long invocations,
+
+		/**
+		 * @param syntaxFailures - the number of times the executor failed with a
+		 *                       command syntax exception, for example by calling
+		 *                       {@link CommandAPI#fail(String)}
+		 */
+		long syntaxFailures,
+
+		/** @param unexpectedFailures - the number of times the executor threw any other exception */
+		long unexpectedFailures,
+
+		/** @param latency - the time taken to run the executor */
+		LatencySnapshot latency) {
+}
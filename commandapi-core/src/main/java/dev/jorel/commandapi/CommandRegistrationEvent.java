@@ -0,0 +1,26 @@
+package dev.jorel.commandapi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event which is recorded when the CommandAPI registers
+ * a command
+ */
+@Name("dev.jorel.commandapi.CommandRegistration")
+@Label("Command Registration")
+@Category("CommandAPI")
+@Description("A command was registered by the CommandAPI")
+final class CommandRegistrationEvent extends Event {
+
+	@Label("Command Name")
+	String commandName;
+
+	@Label("Node Count")
+	@Description("The number of distinct Brigadier nodes created for the command and its aliases")
+	int nodeCount;
+
+}
@@ -1,8 +1,13 @@
 package dev.jorel.commandapi;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.exceptions.GreedyArgumentException;
+
 /**
  * This is the root node for creating a command as a tree
  */
@@ -34,15 +39,13 @@ public class CommandTree extends ExecutableCommand<CommandTree> {
 	 * Registers the command
 	 */
 	public void register() {
-		List<Execution> executions = new ArrayList<>();
-		if (this.executor.hasAnyExecutors()) {
-			executions.add(new Execution(new ArrayList<>(), this.executor));
-		}
-		for (ArgumentTree tree : arguments) {
-			executions.addAll(tree.getExecutions());
+		if (!CommandAPI.canRegister()) {
+			CommandAPI.logWarning("Command /" + meta.commandName + " is being registered after the server had loaded. Undefined behavior ahead!");
 		}
-		for (Execution execution : executions) {
-			execution.register(this.meta);
+		try {
+			CommandAPIHandler.getInstance().register(meta, executor, arguments);
+		} catch (GreedyArgumentException | CommandSyntaxException | IOException e) {
+			e.printStackTrace();
 		}
 	}
 
@@ -0,0 +1,172 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+
+/**
+ * A cache of the command tree packets which are sent to players when they join
+ * or when their requirements are updated. Building this packet means copying
+ * every node of the command tree that a player can use, so at a login surge
+ * the same packet is otherwise built over and over again.
+ *
+ * Players are grouped by a {@link Fingerprint} of which nodes they can use,
+ * along with the names of the commands that plugins have hidden from them.
+ * Players with the same fingerprint see exactly the same tree, so they are
+ * sent the same packet. Packets are thrown away whenever commands are
+ * registered or unregistered, or datapacks are reloaded. A fingerprint also
+ * records the identity of every node it visits, so a packet is never reused
+ * if the command tree has been changed by something else.
+ */
+public final class CommandTreeCache {
+
+	// Requirements which depend on something that changes often (for example,
+	// a player's location) could create a new fingerprint every time, so the
+	// cache is cleared if it grows past this size
+	private static final int MAXIMUM_SIZE = 256;
+
+	private final Map<Key, Object> packets = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Computes which nodes of a command tree a source can use. This checks the
+	 * requirements of the same nodes that building the command tree packet
+	 * would, but doesn't copy anything.
+	 *
+	 * @param <S>    the type of the command source
+	 * @param root   the root of the command tree
+	 * @param source the source to check the requirements of
+	 * @return the fingerprint of the nodes that the source can use
+	 */
+	public <S> Fingerprint fingerprint(RootCommandNode<S> root, S source) {
+		FingerprintBuilder<S> builder = new FingerprintBuilder<>(source);
+		for (CommandNode<S> child : root.getChildren()) {
+			if (builder.visit(child)) {
+				builder.visibleCommands.add(child.getName());
+			}
+		}
+		return new Fingerprint(builder.usableNodes, builder.structure, builder.visibleCommands);
+	}
+
+	/**
+	 * Gets the command tree packet for a fingerprint, building it if it isn't
+	 * cached
+	 *
+	 * @param <P>            the type of the packet
+	 * @param fingerprint    the fingerprint of the nodes that the player can use
+	 * @param hiddenCommands the names of the commands which are visible according
+	 *                       to the fingerprint, but have been hidden from the
+	 *                       player anyway (for example, by a
+	 *                       {@code PlayerCommandSendEvent} listener)
+	 * @param packetFactory  builds the packet if it isn't cached
+	 * @return the command tree packet
+	 */
+	@SuppressWarnings("unchecked")
+	public <P> P getPacket(Fingerprint fingerprint, Set<String> hiddenCommands, Supplier<P> packetFactory) {
+		Key key = new Key(fingerprint, hiddenCommands);
+		Object packet = packets.get(key);
+		if (packet != null) {
+			hits.increment();
+			return (P) packet;
+		}
+
+		misses.increment();
+		if (packets.size() >= MAXIMUM_SIZE) {
+			invalidate();
+		}
+		P newPacket = packetFactory.get();
+		packets.put(key, newPacket);
+		return newPacket;
+	}
+
+	/**
+	 * Removes every cached packet. This is called whenever the command tree
+	 * changes.
+	 */
+	public void invalidate() {
+		int size = packets.size();
+		packets.clear();
+		evictions.add(size);
+	}
+
+	/**
+	 * @return the hit, miss and eviction counts of this cache
+	 */
+	CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+	}
+
+	/**
+	 * Identifies which nodes of a command tree a player can use.
+	 *
+	 * @param usableNodes     - one bit for each node whose requirements were
+	 *                        checked, in the order the tree was walked, which is
+	 *                        set if the node can be used
+	 * @param structure       - a hash of the identity of every node whose
+	 *                        requirements were checked
+	 * @param visibleCommands - the names of the top-level commands which can be
+	 *                        used
+	 */
+	public record Fingerprint(
+			/**
+			 * @param usableNodes - one bit for each node whose requirements were checked,
+			 *                    in the order the tree was walked, which is set if the
+			 *                    node can be used
+			 */
+			BitSet usableNodes,
+
+			/**
+			 * @param structure - a hash of the identity of every node whose requirements
+			 *                  were checked
+			 */
+			long structure,
+
+			/**
+			 * @param visibleCommands - the names of the top-level commands which can be
+			 *                        used
+			 */
+			List<String> visibleCommands) {
+	}
+
+	private record Key(Fingerprint fingerprint, Set<String> hiddenCommands) {
+	}
+
+	private static final class FingerprintBuilder<S> {
+
+		private final S source;
+		private final BitSet usableNodes = new BitSet();
+		private final List<String> visibleCommands = new ArrayList<>();
+		private int index = 0;
+		private long structure = 0;
+
+		FingerprintBuilder(S source) {
+			this.source = source;
+		}
+
+		// Like building the packet, this only descends into nodes which can be used
+		boolean visit(CommandNode<S> node) {
+			structure = (structure ^ System.identityHashCode(node)) * 0x9E3779B97F4A7C15L;
+			if (!node.canUse(source)) {
+				index++;
+				return false;
+			}
+			usableNodes.set(index++);
+			for (CommandNode<S> child : node.getChildren()) {
+				visit(child);
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -20,10 +20,13 @@
  *******************************************************************************/
 package dev.jorel.commandapi;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -229,43 +232,114 @@ public final class Converter {
 	 * https://www.jorel.dev/blog/Simplifying-Bukkit-CommandSenders/
 	 */
 	private static CommandSender mergeProxySender(NativeProxyCommandSender proxySender) {
-		// Add all interfaces
-		Set<Class<?>> calleeInterfacesList = new HashSet<>();
-		Class<?> currentClass = proxySender.getCallee().getClass();
-		if (currentClass.isInterface()) {
-			calleeInterfacesList.add(currentClass);
+		return PROXY_FACTORIES.get(proxySender.getCallee().getClass()).create(proxySender);
+	}
+
+	private static final ClassValue<ProxyFactory> PROXY_FACTORIES = new ClassValue<>() {
+		@Override
+		protected ProxyFactory computeValue(Class<?> type) {
+			return new ProxyFactory(type);
+		}
+	};
+
+	/**
+	 * Where a method call on a merged proxy sender is sent to
+	 */
+	private enum ProxyRoute {
+		LOCATION, BLOCK, EYE_LOCATION, WORLD, CALLER, CALLEE;
+
+		static ProxyRoute of(Method method) {
+			return switch (method.getName()) {
+				case "getLocation" -> LOCATION;
+				case "getBlock" -> BLOCK;
+				case "getEyeLocation" -> EYE_LOCATION;
+				case "getWorld" -> WORLD;
+				default -> CALLER_METHODS.contains(method.getName()) ? CALLER : CALLEE;
+			};
 		}
-		while (currentClass != null) {
-			calleeInterfacesList.addAll(Arrays.asList(currentClass.getInterfaces()));
-			currentClass = currentClass.getSuperclass();
+	}
+
+	/**
+	 * Creates merged proxy senders for a single callee class. The proxy class and
+	 * the route of each of its methods are computed once per callee class, so
+	 * creating a proxy sender is just a constructor call.
+	 */
+	private static final class ProxyFactory {
+
+		private final Constructor<?> proxyConstructor;
+		private final Map<Method, ProxyRoute> routes = new HashMap<>();
+
+		ProxyFactory(Class<?> calleeClass) {
+			// Add all interfaces
+			Set<Class<?>> calleeInterfacesList = new HashSet<>();
+			Class<?> currentClass = calleeClass;
+			if (currentClass.isInterface()) {
+				calleeInterfacesList.add(currentClass);
+			}
+			while (currentClass != null) {
+				calleeInterfacesList.addAll(Arrays.asList(currentClass.getInterfaces()));
+				currentClass = currentClass.getSuperclass();
+			}
+			Class<?>[] calleeInterfaces = calleeInterfacesList.toArray(new Class<?>[0]);
+
+			for (Class<?> calleeInterface : calleeInterfaces) {
+				for (Method method : calleeInterface.getMethods()) {
+					routes.put(method, ProxyRoute.of(method));
+				}
+			}
+			for (Method method : Object.class.getMethods()) {
+				routes.put(method, ProxyRoute.of(method));
+			}
+
+			// Generate the proxy class once, so we can construct instances of it directly
+			Class<?> proxyClass = Proxy.newProxyInstance(CommandSender.class.getClassLoader(), calleeInterfaces,
+					(proxy, method, args) -> null).getClass();
+			try {
+				this.proxyConstructor = proxyClass.getConstructor(InvocationHandler.class);
+				if (!Modifier.isPublic(proxyClass.getModifiers())) {
+					this.proxyConstructor.setAccessible(true);
+				}
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException("Could not find the constructor of proxy class " + proxyClass, e);
+			}
 		}
-		Class<?>[] calleeInterfaces = calleeInterfacesList.toArray(new Class<?>[0]);
-
-		InvocationHandler handler = (Object p, Method method, Object[] args) -> {
-			switch(method.getName()) {
-				case "getLocation":
-					return proxySender.getLocation();
-				case "getBlock":
-					return proxySender.getLocation().getBlock();
-				case "getEyeLocation":
-					if(proxySender.getCallee() instanceof LivingEntity livingEntity) {
-						Location loc = proxySender.getLocation();
-						loc.setY(loc.getY() + livingEntity.getEyeHeight());
-						return loc;
-					} else {
-						// This case should never happen. If it does, please let me know!
+
+		CommandSender create(NativeProxyCommandSender proxySender) {
+			InvocationHandler handler = (Object p, Method method, Object[] args) -> {
+				ProxyRoute route = routes.get(method);
+				if (route == null) {
+					route = ProxyRoute.of(method);
+				}
+				switch (route) {
+					case LOCATION:
 						return proxySender.getLocation();
-					}
-				case "getWorld":
-					return proxySender.getWorld();
-				default:
-					return method.invoke(
-							CALLER_METHODS.contains(method.getName()) ? proxySender.getCaller() : proxySender.getCallee(),
-							args);
+					case BLOCK:
+						return proxySender.getLocation().getBlock();
+					case EYE_LOCATION:
+						if (proxySender.getCallee() instanceof LivingEntity livingEntity) {
+							Location loc = proxySender.getLocation();
+							loc.setY(loc.getY() + livingEntity.getEyeHeight());
+							return loc;
+						} else {
+							// This case should never happen. If it does, please let me know!
+							return proxySender.getLocation();
+						}
+					case WORLD:
+						return proxySender.getWorld();
+					case CALLER:
+						return method.invoke(proxySender.getCaller(), args);
+					default:
+						return method.invoke(proxySender.getCallee(), args);
+				}
+			};
+
+			try {
+				return (CommandSender) proxyConstructor.newInstance(handler);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Could not create a proxy sender for " + proxySender.getCallee(), e);
 			}
-		};
+		}
 
-		return (CommandSender) Proxy.newProxyInstance(CommandSender.class.getClassLoader(), calleeInterfaces, handler);
 	}
 
 }
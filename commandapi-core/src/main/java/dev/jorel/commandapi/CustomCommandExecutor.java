@@ -22,7 +22,8 @@ package dev.jorel.commandapi;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.command.BlockCommandSender;
 import org.bukkit.command.CommandSender;
@@ -54,6 +55,10 @@ public class CustomCommandExecutor<T extends CommandSender> {
 	private List<IExecutorNormal<T>> normalExecutors;
 	private List<IExecutorResulting<T>> resultingExecutors;
 
+	// The executors compiled into a lookup table. This is rebuilt lazily whenever
+	// the executors change
+	private volatile DispatchTable dispatchTable;
+
 	public CustomCommandExecutor() {
 		normalExecutors = new ArrayList<>();
 		resultingExecutors = new ArrayList<>();
@@ -62,71 +67,63 @@ public class CustomCommandExecutor<T extends CommandSender> {
 	@SuppressWarnings("unchecked")
 	public <S extends IExecutorNormal<?>> void addNormalExecutor(S executor) {
 		this.normalExecutors.add((IExecutorNormal<T>) executor);
+		this.dispatchTable = null;
 	}
 
 	@SuppressWarnings("unchecked")
 	public <S extends IExecutorResulting<?>> void addResultingExecutor(S executor) {
 		this.resultingExecutors.add((IExecutorResulting<T>) executor);
+		this.dispatchTable = null;
 	}
 
 	public int execute(CommandSender sender, Object[] arguments) throws CommandSyntaxException {
-
-		// Parse executor type
-		if (!resultingExecutors.isEmpty()) {
-			// Run resulting executor
-			try {
-				return execute(resultingExecutors, sender, arguments);
-			} catch (WrapperCommandSyntaxException e) {
-				throw e.getException();
-			} catch (Exception e) {
-				e.printStackTrace(System.out);
-				return 0;
-			}
-		} else {
-			// Run normal executor
-			try {
-				return execute(normalExecutors, sender, arguments);
-			} catch (WrapperCommandSyntaxException e) {
-				throw e.getException();
-			} catch (Exception e) {
-				e.printStackTrace(System.out);
-				return 0;
-			}
+		try {
+			return getDispatchTable().getExecutor(sender).executeWith(sender, arguments);
+		} catch (WrapperCommandSyntaxException e) {
+			throw e.getException();
+		} catch (Exception e) {
+			e.printStackTrace(System.out);
+			return 0;
 		}
 	}
 
-	private int execute(List<? extends IExecutorTyped> executors, CommandSender sender, Object[] args)
-			throws WrapperCommandSyntaxException {
-		if (isForceNative()) {
-			return execute(executors, sender, args, ExecutorType.NATIVE);
-		} else if (sender instanceof Player && matches(executors, ExecutorType.PLAYER)) {
-			return execute(executors, sender, args, ExecutorType.PLAYER);
-		} else if (sender instanceof Entity && matches(executors, ExecutorType.ENTITY)) {
-			return execute(executors, sender, args, ExecutorType.ENTITY);
-		} else if (sender instanceof ConsoleCommandSender && matches(executors, ExecutorType.CONSOLE)) {
-			return execute(executors, sender, args, ExecutorType.CONSOLE);
-		} else if (sender instanceof BlockCommandSender && matches(executors, ExecutorType.BLOCK)) {
-			return execute(executors, sender, args, ExecutorType.BLOCK);
-		} else if (sender instanceof ProxiedCommandSender && matches(executors, ExecutorType.PROXY)) {
-			return execute(executors, sender, args, ExecutorType.PROXY);
-		} else if (matches(executors, ExecutorType.ALL)) {
-			return execute(executors, sender, args, ExecutorType.ALL);
-		} else {
-			throw new WrapperCommandSyntaxException(new SimpleCommandExceptionType(
-					new LiteralMessage(CommandAPI.getConfiguration().getMissingImplementationMessage()
-							.replace("%s", sender.getClass().getSimpleName().toLowerCase())
-							.replace("%S", sender.getClass().getSimpleName()))).create());
+	/**
+	 * Executes this executor and records its invocation, failures and latency
+	 * against the type of executor that ran
+	 */
+	int execute(CommandSender sender, Object[] arguments, CommandMetrics.Recorder recorder)
+			throws CommandSyntaxException {
+		if (recorder == null) {
+			return execute(sender, arguments);
+		}
+		IExecutorTyped executor = getDispatchTable().getExecutor(sender);
+		CommandMetrics.ExecutorMetrics metrics = recorder.get(executor.getType());
+		long start = System.nanoTime();
+		try {
+			int result = executor.executeWith(sender, arguments);
+			metrics.recordInvocation(System.nanoTime() - start);
+			return result;
+		} catch (WrapperCommandSyntaxException e) {
+			metrics.recordSyntaxFailure(System.nanoTime() - start);
+			throw e.getException();
+		} catch (Exception e) {
+			metrics.recordUnexpectedFailure(System.nanoTime() - start);
+			e.printStackTrace(System.out);
+			return 0;
 		}
 	}
 
-	private int execute(List<? extends IExecutorTyped> executors, CommandSender sender, Object[] args,
-			ExecutorType type) throws WrapperCommandSyntaxException {
-		for (IExecutorTyped executor : executors) {
-			if (executor.getType() == type) {
-				return executor.executeWith(sender, args);
-			}
+	private DispatchTable getDispatchTable() {
+		DispatchTable table = this.dispatchTable;
+		if (table == null) {
+			// Resulting executors take priority over normal executors
+			boolean forceNative = matches(normalExecutors, ExecutorType.NATIVE)
+					|| matches(resultingExecutors, ExecutorType.NATIVE);
+			table = new DispatchTable(resultingExecutors.isEmpty() ? normalExecutors : resultingExecutors,
+					forceNative);
+			this.dispatchTable = table;
 		}
-		throw new NoSuchElementException("Executor had no valid executors for type " + type.toString());
+		return table;
 	}
 
 	public List<IExecutorNormal<T>> getNormalExecutors() {
@@ -142,7 +139,7 @@ public class CustomCommandExecutor<T extends CommandSender> {
 	}
 
 	public boolean isForceNative() {
-		return matches(normalExecutors, ExecutorType.NATIVE) || matches(resultingExecutors, ExecutorType.NATIVE);
+		return getDispatchTable().forceNative;
 	}
 
 	private boolean matches(List<? extends IExecutorTyped> executors, ExecutorType type) {
@@ -165,9 +162,87 @@ public class CustomCommandExecutor<T extends CommandSender> {
 
 	public void setNormalExecutors(List<IExecutorNormal<T>> normalExecutors) {
 		this.normalExecutors = normalExecutors;
+		this.dispatchTable = null;
 	}
 
 	public void setResultingExecutors(List<IExecutorResulting<T>> resultingExecutors) {
 		this.resultingExecutors = resultingExecutors;
+		this.dispatchTable = null;
+	}
+
+	/**
+	 * A list of executors compiled into a table indexed by {@link ExecutorType},
+	 * along with a cache of which executor each class of command sender resolves
+	 * to. Once a sender class has been seen, finding its executor is a single map
+	 * lookup.
+	 */
+	private static final class DispatchTable {
+
+		private final IExecutorTyped[] executorsByType = new IExecutorTyped[ExecutorType.values().length];
+		private final Map<Class<?>, IExecutorTyped> executorsBySender = new ConcurrentHashMap<>();
+		private final boolean forceNative;
+
+		DispatchTable(List<? extends IExecutorTyped> executors, boolean forceNative) {
+			for (IExecutorTyped executor : executors) {
+				// The first executor declared for each type wins
+				int index = executor.getType().ordinal();
+				if (executorsByType[index] == null) {
+					executorsByType[index] = executor;
+				}
+			}
+			this.forceNative = forceNative;
+		}
+
+		IExecutorTyped getExecutor(CommandSender sender) {
+			if (forceNative) {
+				IExecutorTyped executor = get(ExecutorType.NATIVE);
+				return executor == null ? MissingExecutor.INSTANCE : executor;
+			}
+			IExecutorTyped executor = executorsBySender.get(sender.getClass());
+			if (executor == null) {
+				executor = resolve(sender);
+				executorsBySender.put(sender.getClass(), executor);
+			}
+			return executor;
+		}
+
+		private IExecutorTyped resolve(CommandSender sender) {
+			IExecutorTyped executor;
+			if (sender instanceof Player && (executor = get(ExecutorType.PLAYER)) != null) {
+				return executor;
+			} else if (sender instanceof Entity && (executor = get(ExecutorType.ENTITY)) != null) {
+				return executor;
+			} else if (sender instanceof ConsoleCommandSender && (executor = get(ExecutorType.CONSOLE)) != null) {
+				return executor;
+			} else if (sender instanceof BlockCommandSender && (executor = get(ExecutorType.BLOCK)) != null) {
+				return executor;
+			} else if (sender instanceof ProxiedCommandSender && (executor = get(ExecutorType.PROXY)) != null) {
+				return executor;
+			} else if ((executor = get(ExecutorType.ALL)) != null) {
+				return executor;
+			} else {
+				return MissingExecutor.INSTANCE;
+			}
+		}
+
+		private IExecutorTyped get(ExecutorType type) {
+			return executorsByType[type.ordinal()];
+		}
+
+	}
+
+	/**
+	 * The executor used when a command has no executor for a given command sender
+	 */
+	private enum MissingExecutor implements IExecutorTyped {
+		INSTANCE;
+
+		@Override
+		public int executeWith(CommandSender sender, Object[] args) throws WrapperCommandSyntaxException {
+			throw new WrapperCommandSyntaxException(new SimpleCommandExceptionType(
+					new LiteralMessage(CommandAPI.getConfiguration().getMissingImplementationMessage()
+							.replace("%s", sender.getClass().getSimpleName().toLowerCase())
+							.replace("%S", sender.getClass().getSimpleName()))).create());
+		}
 	}
-}
\ No newline at end of file
+}
@@ -1,6 +1,8 @@
 package dev.jorel.commandapi;
 
 import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
+import dev.jorel.commandapi.executors.AsyncCommandExecutor;
+import dev.jorel.commandapi.executors.AsyncPlayerCommandExecutor;
 import dev.jorel.commandapi.executors.CommandBlockCommandExecutor;
 import dev.jorel.commandapi.executors.CommandBlockResultingCommandExecutor;
 import dev.jorel.commandapi.executors.CommandExecutor;
@@ -18,6 +20,7 @@ import dev.jorel.commandapi.executors.ProxyResultingCommandExecutor;
 import dev.jorel.commandapi.executors.ResultingCommandExecutor;
 import org.bukkit.command.CommandSender;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class represents something that is executable. This is mostly, {@link CommandAPICommand} instances, or can also be {@link CommandTree} nodes and even {@link Argument} nodes in a tree
@@ -91,6 +94,36 @@ abstract class Executable<T extends Executable<T>> {
 		return (T) this;
 	}
 
+	/**
+	 * Adds an asynchronous executor to the current command builder. The executor is
+	 * run on the CommandAPI's asynchronous executor instead of the main server thread
+	 * @param executor A lambda of type <code>(CommandSender, Object[]) -&gt; CompletableFuture&lt;Integer&gt;</code> that will be executed asynchronously when the command is run
+	 * @param types A list of executor types to use this executes method for.
+	 * @return this command builder
+	 */
+	@SuppressWarnings("unchecked")
+	public T executesAsync(AsyncCommandExecutor executor, ExecutorType... types) {
+		if(types == null || types.length == 0) {
+			this.executor.addNormalExecutor(executor);
+		} else {
+			for(ExecutorType type : types) {
+				this.executor.addNormalExecutor(new AsyncCommandExecutor() {
+
+					@Override
+					public CompletableFuture<Integer> runAsync(CommandSender sender, Object[] args) throws WrapperCommandSyntaxException {
+						return executor.runAsync(sender, args);
+					}
+					
+					@Override
+					public ExecutorType getType() {
+						return type;
+					}
+				});
+			}
+		}
+		return (T) this;
+	}
+
 	// Player command executor
 
 	/**
@@ -115,6 +148,18 @@ abstract class Executable<T extends Executable<T>> {
 		return (T) this;
 	}
 
+	/**
+	 * Adds an asynchronous executor to the current command builder. The executor is
+	 * run on the CommandAPI's asynchronous executor instead of the main server thread
+	 * @param executor A lambda of type <code>(Player, Object[]) -&gt; CompletableFuture&lt;Integer&gt;</code> that will be executed asynchronously when the command is run
+	 * @return this command builder
+	 */
+	@SuppressWarnings("unchecked")
+	public T executesPlayerAsync(AsyncPlayerCommandExecutor executor) {
+		this.executor.addNormalExecutor(executor);
+		return (T) this;
+	}
+
 	// Entity command executor
 
 	/**
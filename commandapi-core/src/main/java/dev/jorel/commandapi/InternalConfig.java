@@ -54,6 +54,33 @@ public class InternalConfig {
 	// The message to display when an executor implementation is missing
 	private final String message_missingExecutorImplementation;
 
+	// The maximum number of times a converted command can run from entity selectors
+	private final int convertedCommandExpansionLimit;
+
+	// How long permission and requirement checks are cached for each player, in milliseconds
+	private final long permissionCacheDuration;
+
+	// How long to wait for suggestions before sending what has been computed so far, in milliseconds
+	private final long suggestionTimeout;
+
+	// Whether asynchronous tasks should run on virtual threads, if they are available
+	private final boolean useVirtualThreads;
+
+	// Limits for the number of running and queued asynchronous tasks
+	private final int asyncMaxConcurrentTasks;
+	private final int asyncMaxConcurrentTasksPerPlayer;
+	private final int asyncMaxQueuedTasks;
+
+	// Whether metrics should be recorded for executed commands
+	private final boolean enableMetrics;
+
+	// The number of player profiles to cache, and how long to cache them for in milliseconds
+	private final int profileCacheSize;
+	private final long profileCacheDuration;
+
+	// Looks up player profiles which aren't cached
+	private final ProfileRepository profileRepository;
+
 	// Create a command_registration.json file
 	private final File dispatcherFile;
 
@@ -75,6 +102,17 @@ public class InternalConfig {
 		this.silentLogs = fileConfig.getBoolean("silent-logs");
 		this.useLatestNMSVersion = fileConfig.getBoolean("use-latest-nms-version");
 		this.message_missingExecutorImplementation = fileConfig.getString("messages.missing-executor-implementation");
+		this.convertedCommandExpansionLimit = fileConfig.getInt("converted-command-expansion-limit", 10000);
+		this.permissionCacheDuration = fileConfig.getLong("permission-cache-duration", 0);
+		this.suggestionTimeout = fileConfig.getLong("suggestion-timeout", 0);
+		this.useVirtualThreads = fileConfig.getBoolean("use-virtual-threads", true);
+		this.asyncMaxConcurrentTasks = fileConfig.getInt("async-max-concurrent-tasks", 16);
+		this.asyncMaxConcurrentTasksPerPlayer = fileConfig.getInt("async-max-concurrent-tasks-per-player", 2);
+		this.asyncMaxQueuedTasks = fileConfig.getInt("async-max-queued-tasks", 256);
+		this.enableMetrics = fileConfig.getBoolean("enable-metrics", false);
+		this.profileCacheSize = fileConfig.getInt("profile-cache-size", 1000);
+		this.profileCacheDuration = fileConfig.getLong("profile-cache-duration", 3600000);
+		this.profileRepository = ProfileRepository.bukkit();
 		this.dispatcherFile = fileConfig.getBoolean("create-dispatcher-json") ? dispatcherFile : null;
 		this.pluginsToConvert = new HashMap<>();
 		this.skipSenderProxy = new ArrayList<>();
@@ -146,6 +184,17 @@ public class InternalConfig {
 		this.silentLogs = config.silentLogs;
 		this.useLatestNMSVersion = config.useLatestNMSVersion;
 		this.message_missingExecutorImplementation = config.missingExecutorImplementationMessage;
+		this.convertedCommandExpansionLimit = config.convertedCommandExpansionLimit;
+		this.permissionCacheDuration = config.permissionCacheDuration;
+		this.suggestionTimeout = config.suggestionTimeout;
+		this.useVirtualThreads = config.useVirtualThreads;
+		this.asyncMaxConcurrentTasks = config.asyncMaxConcurrentTasks;
+		this.asyncMaxConcurrentTasksPerPlayer = config.asyncMaxConcurrentTasksPerPlayer;
+		this.asyncMaxQueuedTasks = config.asyncMaxQueuedTasks;
+		this.enableMetrics = config.enableMetrics;
+		this.profileCacheSize = config.profileCacheSize;
+		this.profileCacheDuration = config.profileCacheDuration;
+		this.profileRepository = config.profileRepository;
 		this.dispatcherFile = config.dispatcherFile;
 		this.pluginsToConvert = new HashMap<>();
 		this.skipSenderProxy = new ArrayList<>();
@@ -183,6 +232,91 @@ public class InternalConfig {
 		return this.message_missingExecutorImplementation;
 	}
 
+	/**
+	 * @return The maximum number of times a converted command can be run when its
+	 *         entity selectors are expanded, or a negative number if there is no
+	 *         limit
+	 */
+	public int getConvertedCommandExpansionLimit() {
+		return this.convertedCommandExpansionLimit;
+	}
+
+	/**
+	 * @return How long the results of permission and requirement checks are cached
+	 *         for each player, in milliseconds. If this is 0, they are not cached
+	 */
+	public long getPermissionCacheDuration() {
+		return this.permissionCacheDuration;
+	}
+
+	/**
+	 * @return How long to wait for suggestions before sending the suggestions
+	 *         which have been computed so far, in milliseconds. If this is 0,
+	 *         there is no timeout
+	 */
+	public long getSuggestionTimeout() {
+		return this.suggestionTimeout;
+	}
+
+	/**
+	 * @return Whether asynchronous tasks should run on virtual threads, if they are
+	 *         available
+	 */
+	public boolean shouldUseVirtualThreads() {
+		return this.useVirtualThreads;
+	}
+
+	/**
+	 * @return The maximum number of asynchronous tasks which can run at once
+	 */
+	public int getAsyncMaxConcurrentTasks() {
+		return this.asyncMaxConcurrentTasks;
+	}
+
+	/**
+	 * @return The maximum number of asynchronous tasks which can run at once for a
+	 *         single player, or 0 if there is no limit
+	 */
+	public int getAsyncMaxConcurrentTasksPerPlayer() {
+		return this.asyncMaxConcurrentTasksPerPlayer;
+	}
+
+	/**
+	 * @return The maximum number of asynchronous tasks which can wait to be run
+	 */
+	public int getAsyncMaxQueuedTasks() {
+		return this.asyncMaxQueuedTasks;
+	}
+
+	/**
+	 * @return Whether metrics should be recorded for executed commands
+	 */
+	public boolean shouldEnableMetrics() {
+		return this.enableMetrics;
+	}
+
+	/**
+	 * @return The maximum number of player profiles which are cached
+	 */
+	public int getProfileCacheSize() {
+		return this.profileCacheSize;
+	}
+
+	/**
+	 * @return How long player profiles are cached for, in milliseconds
+	 */
+	public long getProfileCacheDuration() {
+		return this.profileCacheDuration;
+	}
+
+	/**
+	 * @return The {@link ProfileRepository} used to look up player profiles which
+	 *         aren't cached
+	 */
+	public ProfileRepository getProfileRepository() {
+		return this.profileRepository;
+	}
+
 	/**
 	 * @return The {@link File} which should be used to create a JSON representation
 	 *         of Brigadier's command tree
@@ -0,0 +1,108 @@
+package dev.jorel.commandapi;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size histogram of latencies, in nanoseconds. Like an HDR histogram,
+ * values are grouped into buckets whose width grows with the size of the
+ * value: values are split by their highest set bit, and each of these ranges
+ * is split into 16 equally sized buckets. This keeps the relative error of
+ * every recorded value below 6.25%, while covering every positive long value
+ * using under 1000 buckets.
+ *
+ * Recording a value is a few bit operations and an atomic increment, so this
+ * can be updated from any thread without locking.
+ */
+final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	// Bucket group 0 holds the values 0 to 15 exactly. Group n (n > 0) holds
+	// values whose highest set bit is bit n + 3
+	private static final int BUCKET_GROUPS = 64 - SUB_BUCKET_BITS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_GROUPS * SUB_BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * Records a latency
+	 *
+	 * @param nanos the latency, in nanoseconds. Negative values are recorded as 0
+	 */
+	void record(long nanos) {
+		long value = Math.max(nanos, 0L);
+		counts.incrementAndGet(bucketIndex(value));
+		count.increment();
+		total.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * @return a snapshot of the latencies recorded so far
+	 */
+	LatencySnapshot snapshot() {
+		long[] snapshot = new long[counts.length()];
+		long snapshotCount = 0;
+		for (int i = 0; i < snapshot.length; i++) {
+			snapshot[i] = counts.get(i);
+			snapshotCount += snapshot[i];
+		}
+		if (snapshotCount == 0) {
+			return new LatencySnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+		}
+
+		long snapshotMin = min.get();
+		long snapshotMax = max.get();
+		return new LatencySnapshot(snapshotCount, snapshotMin, snapshotMax, (double) total.sum() / count.sum(),
+				percentile(snapshot, snapshotCount, 50.0, snapshotMin, snapshotMax),
+				percentile(snapshot, snapshotCount, 90.0, snapshotMin, snapshotMax),
+				percentile(snapshot, snapshotCount, 99.0, snapshotMin, snapshotMax),
+				percentile(snapshot, snapshotCount, 99.9, snapshotMin, snapshotMax));
+	}
+
+	/**
+	 * @return the highest value of the bucket which contains the given percentile,
+	 *         clamped to the minimum and maximum recorded values
+	 */
+	private static long percentile(long[] counts, long count, double percentile, long min, long max) {
+		long target = Math.max((long) Math.ceil(count * percentile / 100.0), 1L);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= target) {
+				return Math.max(min, Math.min(max, highestValueOf(i)));
+			}
+		}
+		return max;
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int highestBit = 63 - Long.numberOfLeadingZeros(value);
+		int group = highestBit - SUB_BUCKET_BITS + 1;
+		// The bits below the highest set bit pick the bucket within the group
+		int subBucket = (int) (value >>> (group - 1)) & (SUB_BUCKETS - 1);
+		return group * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValueOf(int index) {
+		int group = index >>> SUB_BUCKET_BITS;
+		int subBucket = index & (SUB_BUCKETS - 1);
+		if (group == 0) {
+			return subBucket;
+		}
+		long upper = ((long) (SUB_BUCKETS + subBucket + 1) << (group - 1)) - 1;
+		// The last bucket's upper bound overflows
+		return upper < 0 ? Long.MAX_VALUE : upper;
+	}
+
+}
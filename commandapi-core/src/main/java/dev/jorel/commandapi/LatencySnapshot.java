@@ -0,0 +1,40 @@
+package dev.jorel.commandapi;
+
+/**
+ * A snapshot of the latencies recorded for a command. All latencies are in
+ * nanoseconds. Percentiles are accurate to within 6.25% of the true value.
+ *
+ * @param count - the number of latencies recorded
+ * @param min   - the lowest latency recorded
+ * @param max   - the highest latency recorded
+ * @param mean  - the mean of the latencies recorded
+ * @param p50   - the median latency
+ * @param p90   - the 90th percentile latency
+ * @param p99   - the 99th percentile latency
+ * @param p999  - the 99.9th percentile latency
+ */
+public record LatencySnapshot(
+		/** @param count - the number of latencies recorded */
+		long count,
+
+		/** @param min - the lowest latency recorded */
+		long min,
+
+		/** @param max - the highest latency recorded */
+		long max,
+
+		/** @param mean - the mean of the latencies recorded */
+		double mean,
+
+		/** @param p50 - the median latency */
+		long p50,
+
+		/** @param p90 - the 90th percentile latency */
+		long p90,
+
+		/** @param p99 - the 99th percentile latency */
+		long p99,
+
+		/** @param p999 - the 99.9th percentile latency */
+		long p999) {
+}
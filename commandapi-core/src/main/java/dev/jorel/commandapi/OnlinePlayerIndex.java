@@ -0,0 +1,73 @@
+package dev.jorel.commandapi;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+/**
+ * An index of the players who are online, sorted by their lowercased name.
+ * Players are added when they join and removed when they leave, so finding
+ * the players whose names start with a prefix only looks at the players who
+ * match, instead of every player on the server.
+ *
+ * This can be read from any thread.
+ */
+public final class OnlinePlayerIndex {
+
+	private final NavigableMap<String, Player> playersByName = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Adds every player who is currently online. This is used when the CommandAPI
+	 * is enabled after players have already joined (for example, after a reload)
+	 */
+	void addOnlinePlayers() {
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			add(player);
+		}
+	}
+
+	void add(Player player) {
+		playersByName.put(player.getName().toLowerCase(Locale.ROOT), player);
+	}
+
+	void remove(Player player) {
+		// If the player has already rejoined, don't remove their new entry
+		playersByName.remove(player.getName().toLowerCase(Locale.ROOT), player);
+	}
+
+	/**
+	 * Gets the online players whose names start with a prefix, ignoring case
+	 *
+	 * @param prefix the start of the players' names
+	 * @return a live view of the matching players, sorted by name
+	 */
+	public Collection<Player> getPlayersStartingWith(String prefix) {
+		String key = prefix.toLowerCase(Locale.ROOT);
+		if (key.isEmpty()) {
+			return playersByName.values();
+		}
+		return playersByName.subMap(key, true, key + Character.MAX_VALUE, false).values();
+	}
+
+	/**
+	 * Gets an online player by their exact name, ignoring case
+	 *
+	 * @param name the name of the player
+	 * @return the player with the given name, or null if they aren't online
+	 */
+	public Player getPlayer(String name) {
+		return playersByName.get(name.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * @return the number of players in this index
+	 */
+	public int size() {
+		return playersByName.size();
+	}
+
+}
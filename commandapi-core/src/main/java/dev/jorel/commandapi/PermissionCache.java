@@ -0,0 +1,118 @@
+package dev.jorel.commandapi;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * A cache of the results of permission and requirement checks for each player.
+ * Brigadier checks the requirements of every node in the command tree whenever
+ * it sends the command tree to a player, so with a large tree the same
+ * permission and requirement pair is checked many times for the same player.
+ *
+ * Results are only cached for players, and are thrown away when the player's
+ * requirements are updated with {@link CommandAPI#updateRequirements(Player)},
+ * when they join or leave, when their operator status changes, or when the
+ * configured cache duration passes. A duration of 0 disables this cache.
+ */
+final class PermissionCache {
+
+	private final long durationNanos;
+	private final Map<UUID, SenderEntry> entries = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param durationMillis how long a player's results are kept for, in
+	 *                       milliseconds. If this is 0 or less, nothing is cached
+	 */
+	PermissionCache(long durationMillis) {
+		this.durationNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(durationMillis, 0));
+	}
+
+	/**
+	 * Checks whether a sender satisfies a permission and requirement pair, using a
+	 * cached result if there is one
+	 *
+	 * @param sender the sender to check
+	 * @param key    the permission and requirements to check
+	 * @param check  computes the result if it has not been cached
+	 * @return true if the sender satisfies the permission and requirements
+	 */
+	boolean test(CommandSender sender, Key key, Predicate<CommandSender> check) {
+		if (durationNanos == 0 || !(sender instanceof Player player)) {
+			return check.test(sender);
+		}
+
+		SenderEntry entry = entries.get(player.getUniqueId());
+		if (entry != null && !entry.isValidFor(player)) {
+			if (entries.remove(player.getUniqueId(), entry)) {
+				evictions.increment();
+			}
+			entry = null;
+		}
+		if (entry != null) {
+			Boolean result = entry.results.get(key);
+			if (result != null) {
+				hits.increment();
+				return result;
+			}
+		} else {
+			entry = entries.computeIfAbsent(player.getUniqueId(), uuid -> new SenderEntry(player.isOp()));
+		}
+
+		misses.increment();
+		boolean result = check.test(sender);
+		entry.results.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Removes every cached result for a player
+	 *
+	 * @param player the player to remove cached results for
+	 */
+	void invalidate(Player player) {
+		if (entries.remove(player.getUniqueId()) != null) {
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * @return the hit, miss and eviction counts of this cache
+	 */
+	CacheStats getStats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+	}
+
+	/**
+	 * Identifies a permission and requirement pair. One of these is created for
+	 * each node when it is built, so lookups don't have to allocate anything.
+	 */
+	record Key(CommandPermission permission, Predicate<CommandSender> requirements) {
+	}
+
+	private final class SenderEntry {
+
+		private final long createdAt = System.nanoTime();
+		private final boolean op;
+		private final Map<Key, Boolean> results = new ConcurrentHashMap<>();
+
+		SenderEntry(boolean op) {
+			this.op = op;
+		}
+
+		boolean isValidFor(Player player) {
+			return System.nanoTime() - createdAt < durationNanos && player.isOp() == op;
+		}
+
+	}
+
+}
@@ -0,0 +1,240 @@
+package dev.jorel.commandapi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+
+import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
+
+/**
+ * A cache of the UUIDs of players by name, which is used to resolve offline
+ * players without blocking the server thread. Online players are always found
+ * immediately. Other names are looked up in this cache, and if they aren't
+ * cached, they are looked up asynchronously using a {@link ProfileRepository}.
+ *
+ * The cache keeps at most a fixed number of names, removing the least recently
+ * used names first, and names expire after a fixed duration. It is filled from
+ * the server's user cache when the CommandAPI is enabled, and players are
+ * added to it when they join.
+ */
+public final class ProfileCache {
+
+	// The format of the expiry dates in the server's user cache
+	private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z",
+			Locale.ROOT);
+
+	private final ProfileRepository repository;
+	private final int maximumSize;
+	private final long durationNanos;
+
+	// Guarded by this
+	private final Map<String, CachedProfile> profiles;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	// Lookups which are in progress, so the same name is only looked up once
+	private final Map<String, CompletableFuture<UUID>> lookups = new ConcurrentHashMap<>();
+
+	/**
+	 * @param repository     looks up the UUIDs of names which aren't cached
+	 * @param maximumSize    the maximum number of names to keep
+	 * @param durationMillis how long a name is kept for, in milliseconds
+	 */
+	ProfileCache(ProfileRepository repository, int maximumSize, long durationMillis) {
+		this.repository = repository;
+		this.maximumSize = Math.max(maximumSize, 1);
+		this.durationNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(durationMillis, 0));
+		this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedProfile> eldest) {
+				if (size() > ProfileCache.this.maximumSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Finds an offline player by name without blocking. If the player is online or
+	 * their UUID is cached, the returned future is already complete. Otherwise,
+	 * their UUID is looked up on the CommandAPI's {@link AsyncExecutor}.
+	 *
+	 * @param sender the sender that the player is being found for. If this is a
+	 *               player, the lookup counts towards their asynchronous task
+	 *               limit
+	 * @param name   the name of the player
+	 * @return a future which completes with the player. If there is no player with
+	 *         this name, the future completes exceptionally with a
+	 *         {@link WrapperCommandSyntaxException}
+	 */
+	public CompletableFuture<OfflinePlayer> getOfflinePlayer(CommandSender sender, String name) {
+		Player onlinePlayer = CommandAPI.getOnlinePlayerIndex().getPlayer(name);
+		if (onlinePlayer != null) {
+			return CompletableFuture.completedFuture(onlinePlayer);
+		}
+
+		String key = name.toLowerCase(Locale.ROOT);
+		UUID uuid = getCached(key);
+		if (uuid != null) {
+			return CompletableFuture.completedFuture(Bukkit.getOfflinePlayer(uuid));
+		}
+
+		CompletableFuture<UUID> lookup = lookups.get(key);
+		if (lookup == null) {
+			CompletableFuture<UUID> newLookup = new CompletableFuture<>();
+			lookup = lookups.putIfAbsent(key, newLookup);
+			if (lookup == null) {
+				lookup = newLookup;
+				CommandAPI.getAsyncExecutor().supply(sender, () -> repository.findUniqueId(name))
+						.whenComplete((result, throwable) -> {
+							if (result != null) {
+								put(name, result);
+							}
+							lookups.remove(key, newLookup);
+							if (throwable == null) {
+								newLookup.complete(result);
+							} else {
+								newLookup.completeExceptionally(throwable);
+							}
+						});
+			}
+		}
+
+		return lookup.thenApply(result -> {
+			if (result == null) {
+				throw new CompletionException(new WrapperCommandSyntaxException(
+						new SimpleCommandExceptionType(new LiteralMessage("Unknown player " + name)).create()));
+			}
+			return Bukkit.getOfflinePlayer(result);
+		});
+	}
+
+	/**
+	 * Caches the UUID of a player
+	 *
+	 * @param name the name of the player
+	 * @param uuid the UUID of the player
+	 */
+	synchronized void put(String name, UUID uuid) {
+		profiles.put(name.toLowerCase(Locale.ROOT), new CachedProfile(uuid, System.nanoTime(), durationNanos));
+	}
+
+	/**
+	 * Caches the UUID of a player, unless their name is already cached
+	 *
+	 * @param name          the name of the player
+	 * @param uuid          the UUID of the player
+	 * @param durationNanos how long the UUID is kept for, in nanoseconds
+	 * @return true if the UUID was cached
+	 */
+	private synchronized boolean putIfAbsent(String name, UUID uuid, long durationNanos) {
+		return profiles.putIfAbsent(name.toLowerCase(Locale.ROOT),
+				new CachedProfile(uuid, System.nanoTime(), durationNanos)) == null;
+	}
+
+	/**
+	 * Caches every player in a user cache file, such as the server's
+	 * {@code usercache.json}. Entries which can't be read or have expired are
+	 * skipped, and the other entries are kept until they expire in the user
+	 * cache, if that is sooner than this cache's usual duration. This is run
+	 * asynchronously, so players who are cached while it runs (for example,
+	 * because they joined) are not replaced by their older user cache entries.
+	 *
+	 * @param file the user cache file
+	 * @throws IOException if the file can't be read
+	 */
+	void preload(File file) throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+
+		int count = 0;
+		try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			// Older servers ship a version of Gson without JsonParser.parseReader
+			JsonArray entries = new Gson().fromJson(reader, JsonArray.class);
+			if (entries == null) {
+				throw new IOException("Empty user cache " + file.getName());
+			}
+			for (JsonElement element : entries) {
+				if (element instanceof JsonObject entry && entry.has("name") && entry.has("uuid")) {
+					try {
+						long duration = durationNanos;
+						if (entry.has("expiresOn")) {
+							long expiresIn = OffsetDateTime.parse(entry.get("expiresOn").getAsString(), EXPIRY_FORMAT)
+									.toInstant().toEpochMilli() - System.currentTimeMillis();
+							if (expiresIn <= 0) {
+								continue;
+							}
+							duration = Math.min(duration, TimeUnit.MILLISECONDS.toNanos(expiresIn));
+						}
+						if (putIfAbsent(entry.get("name").getAsString(),
+								UUID.fromString(entry.get("uuid").getAsString()), duration)) {
+							count++;
+						}
+					} catch (RuntimeException e) {
+						continue; // Not a valid UUID, expiry date or name
+					}
+				}
+			}
+		} catch (JsonParseException | ClassCastException e) {
+			throw new IOException("Invalid user cache " + file.getName(), e);
+		}
+		CommandAPI.logInfo("Preloaded " + count + " player profiles from " + file.getName());
+	}
+
+	/**
+	 * @return the hit, miss and eviction counts of this cache
+	 */
+	synchronized CacheStats getStats() {
+		return new CacheStats(hits, misses, evictions);
+	}
+
+	private synchronized UUID getCached(String key) {
+		CachedProfile profile = profiles.get(key);
+		if (profile != null && System.nanoTime() - profile.createdAt() >= profile.durationNanos()) {
+			profiles.remove(key);
+			evictions++;
+			profile = null;
+		}
+		if (profile == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return profile.uuid();
+	}
+
+	private record CachedProfile(UUID uuid, long createdAt, long durationNanos) {
+	}
+
+}
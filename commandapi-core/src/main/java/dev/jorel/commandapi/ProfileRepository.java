@@ -0,0 +1,44 @@
+package dev.jorel.commandapi;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * Looks up the UUID of a player from their name. This is used by the
+ * {@link ProfileCache} when a name isn't cached, and is always called
+ * asynchronously, so it is allowed to block (for example, to ask Mojang's
+ * servers).
+ */
+@FunctionalInterface
+public interface ProfileRepository {
+
+	/**
+	 * Finds the UUID of a player. This may block.
+	 *
+	 * @param name the name of the player
+	 * @return the UUID of the player, or null if there is no player with this name
+	 */
+	UUID findUniqueId(String name);
+
+	/**
+	 * @return a profile repository which uses Bukkit's
+	 *         {@link Bukkit#getOfflinePlayer(String)}. On servers in online mode,
+	 *         names which don't belong to a Minecraft account are not found
+	 */
+	@SuppressWarnings("deprecation")
+	static ProfileRepository bukkit() {
+		return name -> {
+			OfflinePlayer player = Bukkit.getOfflinePlayer(name);
+			// Bukkit makes up an offline mode UUID for names that it can't find
+			UUID offlineUniqueId = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+			if (Bukkit.getOnlineMode() && player.getUniqueId().equals(offlineUniqueId)) {
+				return null;
+			}
+			return player.getUniqueId();
+		};
+	}
+
+}
@@ -0,0 +1,211 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import dev.jorel.commandapi.arguments.Argument;
+import dev.jorel.commandapi.arguments.LiteralArgument;
+import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+
+/**
+ * An index of every command registered by the CommandAPI. Registrations are
+ * stored in a trie which is keyed by command name, followed by the node name
+ * of each argument. Each node of the trie stores the argument class that was
+ * registered at that position, which means checking a new command for
+ * conflicts only has to walk its own path through the trie.
+ *
+ * A MultiLiteralArgument is stored as a single node which matches any of its
+ * literals, so a command with MultiLiteralArguments is recorded once instead
+ * of once per combination of its literals.
+ */
+final class RegisteredCommandIndex {
+
+	private final List<RegisteredCommand> commands = new ArrayList<>();
+	private final Map<String, Node> roots = new HashMap<>();
+
+	/**
+	 * Finds every previously registered command that conflicts with a command
+	 * with the provided name and arguments. A conflict is when an argument has the
+	 * same node name as a previously registered argument at the same position,
+	 * but a different argument type. For example, {@code /race invite<Literal>
+	 * player<PlayerArgument>} conflicts with {@code /race invite<Literal>
+	 * player<EntitySelectorArgument>}, because Brigadier would merge both
+	 * {@code player} nodes into one.
+	 *
+	 * @param commandName the name of the command
+	 * @param args        the arguments of the command
+	 * @return the arguments of every conflicting command, formatted as
+	 *         {@code nodeName<ArgumentClass>}. This list is empty if there are no
+	 *         conflicts
+	 */
+	List<String> getConflicts(String commandName, Argument<?>[] args) {
+		Node root = roots.get(commandName);
+		if (root == null) {
+			return Collections.emptyList();
+		}
+
+		// Every node that the arguments so far could have reached. This is more
+		// than one node when MultiLiteralArguments overlap with other literals
+		Set<Node> nodes = Set.of(root);
+		for (Argument<?> arg : args) {
+			Set<Node> next = new LinkedHashSet<>();
+			for (Node node : nodes) {
+				node.findChildren(arg, next);
+			}
+			if (next.isEmpty()) {
+				// Nothing has been registered down this path yet
+				return Collections.emptyList();
+			}
+
+			List<String> conflicts = new ArrayList<>();
+			for (Node node : next) {
+				if (node.argumentClass != getArgumentClass(arg)) {
+					for (Registration registration : node.registrations) {
+						conflicts.add(registration.argumentsAsString());
+					}
+				}
+			}
+			if (!conflicts.isEmpty()) {
+				return conflicts;
+			}
+			nodes = next;
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Adds a command to this index
+	 *
+	 * @param command the registered command
+	 * @param args    the arguments of the registered command
+	 */
+	void add(RegisteredCommand command, Argument<?>[] args) {
+		String[] nodeNames = new String[args.length];
+		StringBuilder argumentsAsString = new StringBuilder();
+		for (int i = 0; i < args.length; i++) {
+			nodeNames[i] = getNodeName(args[i]);
+			argumentsAsString.append(nodeNames[i]).append("<").append(args[i].getClass().getSimpleName())
+					.append("> ");
+		}
+		Registration registration = new Registration(nodeNames, argumentsAsString.toString());
+
+		Node node = roots.computeIfAbsent(command.commandName(), name -> new Node(null));
+		node.registrations.add(registration);
+		for (Argument<?> arg : args) {
+			if (arg instanceof MultiLiteralArgument multiLiteralArgument) {
+				node = node.multiLiteralChildren.computeIfAbsent(List.of(multiLiteralArgument.getLiterals()),
+						literals -> new Node(LiteralArgument.class));
+			} else {
+				node = node.children.computeIfAbsent(arg.getNodeName(), name -> new Node(arg.getClass()));
+			}
+			node.registrations.add(registration);
+		}
+		commands.add(command);
+	}
+
+	/**
+	 * Returns the name of an argument, as it is shown in help and in conflict
+	 * messages. This is the argument's node name, or its literals separated by
+	 * {@code |} for a MultiLiteralArgument
+	 *
+	 * @param arg the argument
+	 * @return the name of the argument
+	 */
+	static String getNodeName(Argument<?> arg) {
+		return arg instanceof MultiLiteralArgument multiLiteralArgument
+				? String.join("|", multiLiteralArgument.getLiterals())
+				: arg.getNodeName();
+	}
+
+	// Brigadier merges literal nodes with the same name, however they were
+	// declared, so MultiLiteralArguments count as LiteralArguments
+	private static Class<?> getArgumentClass(Argument<?> arg) {
+		return arg instanceof MultiLiteralArgument ? LiteralArgument.class : arg.getClass();
+	}
+
+	/**
+	 * Returns whether a command with the provided name has been registered
+	 *
+	 * @param commandName the name of the command
+	 * @return true if a command with this name has been registered
+	 */
+	boolean contains(String commandName) {
+		return roots.containsKey(commandName);
+	}
+
+	/**
+	 * Returns the argument node names of every registration of the command with
+	 * the provided name, in the order that they were registered
+	 *
+	 * @param commandName the name of the command
+	 * @return a list of the node names for each registration of the command
+	 */
+	List<String[]> getArgumentNodeNames(String commandName) {
+		Node root = roots.get(commandName);
+		if (root == null) {
+			return Collections.emptyList();
+		}
+		List<String[]> result = new ArrayList<>(root.registrations.size());
+		for (Registration registration : root.registrations) {
+			result.add(registration.nodeNames());
+		}
+		return result;
+	}
+
+	/**
+	 * @return an unmodifiable list of every registered command, in the order that
+	 *         they were registered
+	 */
+	List<RegisteredCommand> getCommands() {
+		return Collections.unmodifiableList(commands);
+	}
+
+	private record Registration(String[] nodeNames, String argumentsAsString) {
+	}
+
+	private static final class Node {
+
+		// The class of the argument at this node, or null for a command's root
+		private final Class<?> argumentClass;
+
+		// Child nodes, keyed by their node name
+		private final Map<String, Node> children = new LinkedHashMap<>();
+
+		// Child nodes of MultiLiteralArguments, keyed by their literals
+		private final Map<List<String>, Node> multiLiteralChildren = new LinkedHashMap<>();
+
+		// Every registration whose path goes through this node
+		private final List<Registration> registrations = new ArrayList<>();
+
+		Node(Class<?> argumentClass) {
+			this.argumentClass = argumentClass;
+		}
+
+		// Adds every child node that the argument would be merged with by Brigadier
+		void findChildren(Argument<?> arg, Set<Node> result) {
+			String[] names = arg instanceof MultiLiteralArgument multiLiteralArgument
+					? multiLiteralArgument.getLiterals()
+					: new String[] { arg.getNodeName() };
+			for (String name : names) {
+				Node child = children.get(name);
+				if (child != null) {
+					result.add(child);
+				}
+				for (Entry<List<String>, Node> entry : multiLiteralChildren.entrySet()) {
+					if (entry.getKey().contains(name)) {
+						result.add(entry.getValue());
+					}
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package dev.jorel.commandapi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Java Flight Recorder event which is recorded when the CommandAPI computes
+ * suggestions for an argument. For asynchronous suggestions, the event lasts
+ * until the suggestions are complete.
+ */
+@Name("dev.jorel.commandapi.SuggestionRequest")
+@Label("Suggestion Request")
+@Category("CommandAPI")
+@Description("Suggestions were requested for an argument")
+final class SuggestionRequestEvent extends Event {
+
+	@Label("Argument Class")
+	Class<?> argumentClass;
+
+	@Label("Node Name")
+	String nodeName;
+
+	@Label("Prefix Length")
+	@Description("The length of the text typed so far for the argument")
+	int prefixLength;
+
+	@Label("Result Count")
+	int resultCount;
+
+	@Label("Asynchronous")
+	@Description("Whether the suggestions were still being computed when the suggestion provider returned")
+	boolean async;
+
+}
@@ -0,0 +1,153 @@
+package dev.jorel.commandapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.mojang.brigadier.suggestion.Suggestions;
+
+/**
+ * Keeps track of the suggestions that are being computed for each player.
+ * Every keystroke sends a new suggestion request, and the client only uses the
+ * response to the most recent one. When a player sends a request for a
+ * different input, the suggestions which are still being computed for their
+ * previous input are cancelled, so slow suggestion providers don't pile up
+ * work that nobody will see. The CommandAPI's asynchronous suggestions pass
+ * this cancellation on to the task computing them, so a task on the
+ * {@link AsyncExecutor} is removed from its queue, or interrupted if it is
+ * already running. Other suggestion providers only have their result
+ * discarded, unless cancelling the future they return also stops their work.
+ *
+ * Suggestions can also be given a timeout, after which whatever suggestions
+ * have been computed so far are sent to the player.
+ */
+final class SuggestionRequestTracker {
+
+	private final long timeoutMillis;
+	private final Map<UUID, Request> requests = new ConcurrentHashMap<>();
+
+	/**
+	 * @param timeoutMillis how long to wait for suggestions, in milliseconds. If
+	 *                      this is 0 or less, there is no timeout
+	 */
+	SuggestionRequestTracker(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Combines the suggestions which are being computed for a sender's input into
+	 * one future. If the sender is a player, this cancels the suggestions which
+	 * are being computed for any different input that they sent before.
+	 *
+	 * @param sender the sender requesting suggestions
+	 * @param input  the input that suggestions are being requested for
+	 * @param parts  the suggestions being computed for this input
+	 * @return a future which completes with the merged suggestions, or with the
+	 *         suggestions that have been computed so far if the timeout passes.
+	 *         This future is cancelled if the sender sends a different input
+	 *         before it completes
+	 */
+	CompletableFuture<Suggestions> track(CommandSender sender, String input,
+			List<CompletableFuture<Suggestions>> parts) {
+		CompletableFuture<Suggestions> result = new CompletableFuture<>();
+		CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0]))
+				.whenComplete((unused, throwable) -> result.complete(merge(input, parts)));
+
+		if (timeoutMillis > 0) {
+			CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+				if (result.complete(merge(input, parts))) {
+					cancel(parts);
+				}
+			});
+		}
+
+		if (sender instanceof Player player) {
+			Request request = requests.compute(player.getUniqueId(), (uuid, previous) -> {
+				if (previous != null && previous.input.equals(input)) {
+					return previous;
+				}
+				if (previous != null) {
+					previous.cancel();
+				}
+				return new Request(input);
+			});
+			request.add(result, parts);
+		}
+		return result;
+	}
+
+	/**
+	 * Cancels the suggestions being computed for a player and stops tracking them
+	 *
+	 * @param player the player to stop tracking
+	 */
+	void remove(Player player) {
+		Request request = requests.remove(player.getUniqueId());
+		if (request != null) {
+			request.cancel();
+		}
+	}
+
+	/**
+	 * Merges the suggestions which have completed successfully so far
+	 */
+	private static Suggestions merge(String input, List<CompletableFuture<Suggestions>> parts) {
+		List<Suggestions> completed = new ArrayList<>(parts.size());
+		for (CompletableFuture<Suggestions> part : parts) {
+			if (part.isDone() && !part.isCompletedExceptionally()) {
+				completed.add(part.join());
+			}
+		}
+		return Suggestions.merge(input, completed);
+	}
+
+	private static void cancel(List<? extends CompletableFuture<?>> futures) {
+		for (CompletableFuture<?> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * The suggestions being computed for one input from a player. Brigadier asks
+	 * every node which could come next for suggestions, so one input can have
+	 * multiple suggestion futures.
+	 */
+	private static final class Request {
+
+		private final String input;
+		private final List<CompletableFuture<?>> futures = new ArrayList<>();
+		private boolean cancelled = false;
+
+		Request(String input) {
+			this.input = input;
+		}
+
+		synchronized void add(CompletableFuture<Suggestions> result, List<CompletableFuture<Suggestions>> parts) {
+			if (cancelled) {
+				// This request was superseded while we were adding to it
+				result.cancel(true);
+				SuggestionRequestTracker.cancel(parts);
+				return;
+			}
+			// Don't keep futures around after they're done
+			futures.removeIf(CompletableFuture::isDone);
+			futures.add(result);
+			futures.addAll(parts);
+		}
+
+		synchronized void cancel() {
+			cancelled = true;
+			SuggestionRequestTracker.cancel(futures);
+			futures.clear();
+		}
+
+	}
+
+}
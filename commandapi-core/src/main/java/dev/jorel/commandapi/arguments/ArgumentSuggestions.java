@@ -4,11 +4,17 @@ import com.mojang.brigadier.LiteralMessage;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.IStringTooltip;
+import dev.jorel.commandapi.OnlinePlayerIndex;
 import dev.jorel.commandapi.SuggestionInfo;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
+import java.time.Duration;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 /**
@@ -65,9 +71,20 @@ public interface ArgumentSuggestions {
 	 * @return an {@link ArgumentSuggestions} object suggesting the result of the asynchronous function
 	 */
 	static ArgumentSuggestions stringsAsync(Function<SuggestionInfo, CompletableFuture<String[]>> suggestions) {
-		return (info, builder) -> suggestions
-			.apply(info)
-			.thenApply(strings -> toSuggestions(builder, strings));
+		return (info, builder) -> SuggestionFutures.thenApply(suggestions.apply(info),
+			strings -> toSuggestions(builder, strings));
+	}
+
+	/**
+	 * Suggest strings asynchronously, using a blocking function which is run on the
+	 * CommandAPI's {@link dev.jorel.commandapi.AsyncExecutor}
+	 * @param suggestions blocking function providing the strings
+	 * @return an {@link ArgumentSuggestions} object suggesting the result of the function
+	 */
+	static ArgumentSuggestions stringsAsyncBlocking(Function<SuggestionInfo, String[]> suggestions) {
+		return (info, builder) -> SuggestionFutures.thenApply(
+			CommandAPI.getAsyncExecutor().supply(info.sender(), () -> suggestions.apply(info)),
+			strings -> toSuggestions(builder, strings));
 	}
 
 	/**
@@ -94,9 +111,138 @@ public interface ArgumentSuggestions {
 	 * @return an {@link ArgumentSuggestions} object suggesting the result of the asynchronous function
 	 */
 	static ArgumentSuggestions stringsWithTooltipsAsync(Function<SuggestionInfo, CompletableFuture<IStringTooltip[]>> suggestions) {
-		return (info, builder) -> suggestions
-			.apply(info)
-			.thenApply(stringsWithTooltips -> toSuggestions(builder, stringsWithTooltips));
+		return (info, builder) -> SuggestionFutures.thenApply(suggestions.apply(info),
+			stringsWithTooltips -> toSuggestions(builder, stringsWithTooltips));
+	}
+
+	/**
+	 * Suggest strings with tooltips asynchronously, using a blocking function which
+	 * is run on the CommandAPI's {@link dev.jorel.commandapi.AsyncExecutor}
+	 * @param suggestions blocking function providing the strings with tooltips
+	 * @return an {@link ArgumentSuggestions} object suggesting the result of the function
+	 */
+	static ArgumentSuggestions stringsWithTooltipsAsyncBlocking(Function<SuggestionInfo, IStringTooltip[]> suggestions) {
+		return (info, builder) -> SuggestionFutures.thenApply(
+			CommandAPI.getAsyncExecutor().supply(info.sender(), () -> suggestions.apply(info)),
+			stringsWithTooltips -> toSuggestions(builder, stringsWithTooltips));
+	}
+
+	/**
+	 * Suggest hardcoded strings from a prebuilt prefix index. This behaves like
+	 * {@link #strings(String...)}, but the strings are sorted and lowercased once
+	 * when this method is called, so each suggestion request only has to look at
+	 * the strings which match what has been typed. This should be used when there
+	 * are a large number of strings to suggest
+	 * @param suggestions array of hardcoded strings
+	 * @return an {@link ArgumentSuggestions} object suggesting hardcoded strings
+	 */
+	static ArgumentSuggestions indexed(String... suggestions) {
+		return indexed(0, suggestions);
+	}
+
+	/**
+	 * Suggest hardcoded strings from a prebuilt prefix index, suggesting at most
+	 * {@code limit} strings at a time
+	 * @param limit the maximum number of strings to suggest, or 0 for no limit
+	 * @param suggestions array of hardcoded strings
+	 * @return an {@link ArgumentSuggestions} object suggesting hardcoded strings
+	 * @see #indexed(String...)
+	 */
+	static ArgumentSuggestions indexed(int limit, String... suggestions) {
+		PrefixIndex index = PrefixIndex.of(limit, suggestions);
+		return (info, builder) -> future(index.suggest(builder));
+	}
+
+	/**
+	 * Suggest hardcoded strings with tooltips from a prebuilt prefix index,
+	 * suggesting at most {@code limit} strings at a time
+	 * @param limit the maximum number of strings to suggest, or 0 for no limit
+	 * @param suggestions array of hardcoded strings with tooltips
+	 * @return an {@link ArgumentSuggestions} object suggesting the hardcoded strings with tooltips
+	 * @see #indexed(String...)
+	 */
+	static ArgumentSuggestions indexedWithTooltips(int limit, IStringTooltip... suggestions) {
+		PrefixIndex index = PrefixIndex.of(limit, suggestions);
+		return (info, builder) -> future(index.suggest(builder));
+	}
+
+	/**
+	 * Suggest the names of online players. Players are looked up by prefix in the
+	 * CommandAPI's {@link OnlinePlayerIndex}, so only the players whose names
+	 * start with what has been typed are looked at
+	 * @return an {@link ArgumentSuggestions} object suggesting the names of online players
+	 */
+	static ArgumentSuggestions onlinePlayers() {
+		return onlinePlayers((sender, player) -> true);
+	}
+
+	/**
+	 * Suggest the names of online players which pass a filter. Players are looked
+	 * up by prefix in the CommandAPI's {@link OnlinePlayerIndex}, and only the
+	 * players whose names start with what has been typed are passed to the filter
+	 * @param filter a predicate which accepts the command sender and a player, and
+	 * returns true if the player should be suggested. See {@link PlayerFilters}
+	 * for common filters
+	 * @return an {@link ArgumentSuggestions} object suggesting the names of online players which pass the filter
+	 */
+	static ArgumentSuggestions onlinePlayers(BiPredicate<CommandSender, Player> filter) {
+		return (info, builder) -> {
+			for(Player player : CommandAPI.getOnlinePlayerIndex().getPlayersStartingWith(builder.getRemaining())) {
+				if(filter.test(info.sender(), player)) {
+					builder.suggest(player.getName());
+				}
+			}
+			return builder.buildFuture();
+		};
+	}
+
+	/**
+	 * Cache the results of other suggestions. Cached results are kept for up to
+	 * {@code ttl}, and at most 1000 results are kept at once
+	 * @param suggestions the suggestions to cache
+	 * @param scope which suggestion requests can share cached results
+	 * @param ttl how long a result is kept for
+	 * @return an {@link ArgumentSuggestions} object suggesting the cached results of {@code suggestions}
+	 * @see CachedArgumentSuggestions
+	 */
+	static CachedArgumentSuggestions cached(ArgumentSuggestions suggestions, CachedArgumentSuggestions.Scope scope, Duration ttl) {
+		return cached(suggestions, scope, ttl, 1000);
+	}
+
+	/**
+	 * Cache the results of other suggestions. Cached results are kept for up to
+	 * {@code ttl}, and the least recently used results are removed when there are
+	 * more than {@code maximumSize} results
+	 * @param suggestions the suggestions to cache
+	 * @param scope which suggestion requests can share cached results
+	 * @param ttl how long a result is kept for
+	 * @param maximumSize the maximum number of results to keep
+	 * @return an {@link ArgumentSuggestions} object suggesting the cached results of {@code suggestions}
+	 * @see CachedArgumentSuggestions
+	 */
+	static CachedArgumentSuggestions cached(ArgumentSuggestions suggestions, CachedArgumentSuggestions.Scope scope, Duration ttl,
+			int maximumSize) {
+		return cached(suggestions, scope, ttl, maximumSize, false);
+	}
+
+	/**
+	 * Cache the results of other suggestions. Cached results are kept for up to
+	 * {@code ttl}, and the least recently used results are removed when there are
+	 * more than {@code maximumSize} results
+	 * @param suggestions the suggestions to cache
+	 * @param scope which suggestion requests can share cached results
+	 * @param ttl how long a result is kept for
+	 * @param maximumSize the maximum number of results to keep
+	 * @param complete true if {@code suggestions} always suggests every string which
+	 * starts with what has been typed. If this is true, a cached result is also reused
+	 * as the sender keeps typing. This must be false for suggestions which are limited
+	 * or ranked, such as {@link #indexed(int, String...)}
+	 * @return an {@link ArgumentSuggestions} object suggesting the cached results of {@code suggestions}
+	 * @see CachedArgumentSuggestions
+	 */
+	static CachedArgumentSuggestions cached(ArgumentSuggestions suggestions, CachedArgumentSuggestions.Scope scope, Duration ttl,
+			int maximumSize, boolean complete) {
+		return new CachedArgumentSuggestions(suggestions, scope, ttl, maximumSize, complete);
 	}
 
 	/**
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2022 Jorel Ali (Skepter) - MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package dev.jorel.commandapi.arguments;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.OfflinePlayer;
+
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.CommandAPI;
+import dev.jorel.commandapi.CommandAPIHandler;
+import dev.jorel.commandapi.nms.NMS;
+
+/**
+ * An argument that represents the Bukkit OfflinePlayer object, which is found
+ * without blocking the server thread. This argument produces a
+ * {@link CompletableFuture} which completes with the player once their profile
+ * is known, so it should be used with an asynchronous executor, for example
+ * {@code executesAsync((sender, args) -> ((CompletableFuture<OfflinePlayer>) args[0]).thenApply(player -> ...))}.
+ *
+ * Online players and players in the CommandAPI's {@link dev.jorel.commandapi.ProfileCache}
+ * are found immediately. Other players are looked up asynchronously, and the
+ * future completes exceptionally if there is no player with the given name.
+ */
+@SuppressWarnings("rawtypes")
+public class AsyncOfflinePlayerArgument extends SafeOverrideableArgument<CompletableFuture, OfflinePlayer> {
+
+	/**
+	 * An asynchronous OfflinePlayer argument. Produces a future which completes
+	 * with a single player, regardless of whether <code>@a</code>,
+	 * <code>@p</code>, <code>@r</code> or <code>@e</code> is used.
+	 * 
+	 * @param nodeName the name of the node for this argument
+	 */
+	public AsyncOfflinePlayerArgument(String nodeName) {
+		super(nodeName, CommandAPIHandler.getInstance().getNMS()._ArgumentProfile(), OfflinePlayer::getName);
+	}
+
+	@Override
+	public Class<CompletableFuture> getPrimitiveType() {
+		return CompletableFuture.class;
+	}
+
+	@Override
+	public CommandAPIArgumentType getArgumentType() {
+		return CommandAPIArgumentType.OFFLINE_PLAYER;
+	}
+
+	@Override
+	public <CommandListenerWrapper> CompletableFuture<OfflinePlayer> parseArgument(NMS<CommandListenerWrapper> nms,
+			CommandContext<CommandListenerWrapper> cmdCtx, String key, Object[] previousArgs) throws CommandSyntaxException {
+		String input = CommandAPIHandler.getRawArgumentInput(cmdCtx, key);
+
+		// Entity selectors only select online players, so they never block
+		if (input.startsWith("@")) {
+			return CompletableFuture.completedFuture(nms.getOfflinePlayer(cmdCtx, key));
+		}
+		return CommandAPI.getProfileCache().getOfflinePlayer(nms.getCommandSenderFromCSS(cmdCtx.getSource()), input);
+	}
+}
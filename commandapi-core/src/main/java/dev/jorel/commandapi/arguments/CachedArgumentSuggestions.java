@@ -0,0 +1,186 @@
+package dev.jorel.commandapi.arguments;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.entity.Entity;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import dev.jorel.commandapi.CacheStats;
+import dev.jorel.commandapi.SuggestionInfo;
+
+/**
+ * An {@link ArgumentSuggestions} which caches the suggestions of another
+ * {@link ArgumentSuggestions}. Cached suggestions are kept for a fixed amount
+ * of time, and the least recently used suggestions are removed when the cache
+ * is full.
+ *
+ * Suggestions are cached for what the sender has typed so far. By default,
+ * cached suggestions are only reused when the sender has typed exactly the same
+ * thing again. If the cached suggestions are complete, meaning they contain
+ * every suggestion which starts with what the sender has typed, then the cached
+ * suggestions for what they typed earlier are also reused as they keep typing,
+ * by only keeping the suggestions which start with what they have now typed.
+ * Suggestions which are limited or ranked, such as
+ * {@link ArgumentSuggestions#indexed(int, String...)}, are not complete, since
+ * a longer prefix can have suggestions which were left out for a shorter one.
+ *
+ * Instances of this class are created using
+ * {@link ArgumentSuggestions#cached(ArgumentSuggestions, Scope, Duration, int, boolean)}.
+ */
+public final class CachedArgumentSuggestions implements ArgumentSuggestions {
+
+	/**
+	 * Which suggestion requests can share cached suggestions
+	 */
+	public enum Scope {
+		/**
+		 * Suggestions are shared between every sender
+		 */
+		GLOBAL,
+
+		/**
+		 * Suggestions are cached separately for each sender
+		 */
+		SENDER,
+
+		/**
+		 * Suggestions are cached separately for each set of previous argument values
+		 */
+		PREVIOUS_ARGUMENTS;
+	}
+
+	private final ArgumentSuggestions suggestions;
+	private final Scope scope;
+	private final long ttlNanos;
+	private final int maximumSize;
+	private final boolean complete;
+	private final Map<Key, CachedEntry> cache;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	CachedArgumentSuggestions(ArgumentSuggestions suggestions, Scope scope, Duration ttl, int maximumSize,
+			boolean complete) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size of a suggestion cache must be positive");
+		}
+		this.suggestions = suggestions;
+		this.scope = scope;
+		this.ttlNanos = ttl.toNanos();
+		this.maximumSize = maximumSize;
+		this.complete = complete;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CachedEntry> eldest) {
+				if (size() > CachedArgumentSuggestions.this.maximumSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public CompletableFuture<Suggestions> suggest(SuggestionInfo info, SuggestionsBuilder builder)
+			throws CommandSyntaxException {
+		final Object scopeKey = getScopeKey(info);
+		final String remaining = builder.getRemainingLowerCase();
+
+		List<Suggestion> cached = lookup(scopeKey, remaining);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(filter(builder, remaining, cached));
+		}
+
+		return SuggestionFutures.thenApply(suggestions.suggest(info, builder), result -> {
+			store(new Key(scopeKey, remaining), result.getList());
+			return result;
+		});
+	}
+
+	/**
+	 * Removes every cached suggestion
+	 */
+	public synchronized void invalidateAll() {
+		evictions += cache.size();
+		cache.clear();
+	}
+
+	/**
+	 * @return the hit, miss and eviction counts of this cache
+	 */
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hits, misses, evictions);
+	}
+
+	private Object getScopeKey(SuggestionInfo info) {
+		return switch (scope) {
+			case GLOBAL -> Scope.GLOBAL;
+			case SENDER -> info.sender() instanceof Entity entity ? entity.getUniqueId() : info.sender();
+			case PREVIOUS_ARGUMENTS -> Arrays.asList(info.previousArgs());
+		};
+	}
+
+	/**
+	 * Finds the cached suggestions for what has been typed. If the suggestions are
+	 * complete, this finds the cached suggestions for the longest prefix of what
+	 * has been typed instead
+	 */
+	private synchronized List<Suggestion> lookup(Object scopeKey, String remaining) {
+		final long now = System.nanoTime();
+		final int shortestPrefix = complete ? 0 : remaining.length();
+		for (int length = remaining.length(); length >= shortestPrefix; length--) {
+			Key key = new Key(scopeKey, remaining.substring(0, length));
+			CachedEntry entry = cache.get(key);
+			if (entry == null) {
+				continue;
+			}
+			if (now - entry.createdAt() >= ttlNanos) {
+				cache.remove(key);
+				evictions++;
+				continue;
+			}
+			hits++;
+			return entry.suggestions();
+		}
+		misses++;
+		return null;
+	}
+
+	private synchronized void store(Key key, List<Suggestion> suggestions) {
+		cache.put(key, new CachedEntry(suggestions, System.nanoTime()));
+	}
+
+	private static Suggestions filter(SuggestionsBuilder builder, String remaining, List<Suggestion> suggestions) {
+		for (Suggestion suggestion : suggestions) {
+			if (suggestion.getText().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+				if (suggestion.getTooltip() == null) {
+					builder.suggest(suggestion.getText());
+				} else {
+					builder.suggest(suggestion.getText(), suggestion.getTooltip());
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	private record Key(Object scopeKey, String prefix) {
+	}
+
+	private record CachedEntry(List<Suggestion> suggestions, long createdAt) {
+	}
+
+}
@@ -22,15 +22,19 @@ package dev.jorel.commandapi.arguments;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
@@ -48,16 +52,24 @@ import dev.jorel.commandapi.nms.NMS;
 public class ListArgument<T> extends Argument<List> implements IGreedyArgument {
 
 	private final String delimiter;
+	private final Pattern splitter;
 	private final boolean allowDuplicates;
 	private final Function<CommandSender, Collection<T>> supplier;
 	private final Function<T, IStringTooltip> mapper;
 
-	ListArgument(String nodeName, String delimiter, boolean allowDuplicates, Function<CommandSender, Collection<T>> supplier, Function<T, IStringTooltip> suggestionsMapper) {
+	// Indexes are only cached for players, and only if the cache duration is
+	// greater than 0
+	private final long cacheDurationNanos;
+	private final Map<UUID, ValueIndex> cachedIndexes = new ConcurrentHashMap<>();
+
+	ListArgument(String nodeName, String delimiter, boolean allowDuplicates, Function<CommandSender, Collection<T>> supplier, Function<T, IStringTooltip> suggestionsMapper, long cacheDurationMillis) {
 		super(nodeName, StringArgumentType.greedyString());
 		this.delimiter = delimiter;
+		this.splitter = Pattern.compile(Pattern.quote(delimiter));
 		this.allowDuplicates = allowDuplicates;
 		this.supplier = supplier;
 		this.mapper = suggestionsMapper;
+		this.cacheDurationNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(cacheDurationMillis, 0));
 
 		applySuggestions();
 	}
@@ -65,64 +77,53 @@ public class ListArgument<T> extends Argument<List> implements IGreedyArgument {
 	private void applySuggestions() {
 		this.replaceSuggestions(ArgumentSuggestions.stringsWithTooltips(info -> {
 			String currentArg = info.currentArg();
+			ValueIndex index = getIndex(info.sender());
 
-			// This need not be a sorted map because entries in suggestions are
-			// automatically sorted anyway
-			Set<IStringTooltip> values = new HashSet<>();
-			for(T object : supplier.apply(info.sender())) {
-				values.add(mapper.apply(object));
-			}
-
-			List<String> currentArgList = new ArrayList<>();
-			for(String str : currentArg.split(Pattern.quote(delimiter))) {
-				currentArgList.add(str);
-			}
+			// Only the value after the last delimiter is being typed, so everything
+			// before it is kept as it is
+			int lastDelimiter = currentArg.lastIndexOf(delimiter);
+			String suggestionBase = lastDelimiter == -1 ? "" : currentArg.substring(0, lastDelimiter + delimiter.length());
+			String valueStart = currentArg.substring(suggestionBase.length());
 
+			Set<String> enteredValues = new HashSet<>();
 			if(!allowDuplicates) {
-				for(String str : currentArgList) {
-					IStringTooltip valueToRemove = null;
-					for(IStringTooltip value : values) {
-						if(value.getSuggestion().equals(str)) {
-							valueToRemove = value;
-							break;
-						}
-					}
-					if(valueToRemove != null) {
-						values.remove(valueToRemove);
-					}
+				for(String str : splitter.split(suggestionBase)) {
+					enteredValues.add(str);
 				}
+				enteredValues.add(valueStart);
 			}
 
-			// If we end with the specified delimiter, we prompt for the next entry
-			if(currentArg.endsWith(delimiter)) {
-				// 'values' now contains a set of all objects that are NOT in
-				// the current list that the user is typing. We want to return
-				// a list of the current argument + each value that isn't
-				// in the list (i.e. each key in 'values')
-				IStringTooltip[] returnValues = new IStringTooltip[values.size()];
-				int i = 0;
-				for(IStringTooltip str : values) {
-					returnValues[i] = StringTooltip.of(currentArg + str.getSuggestion(), str.getTooltip());
-					i++;
-				}
-				return returnValues;
-			} else {
-				// Auto-complete the current value that the user is typing
-				// Remove the last argument and turn it into a string as the base for suggestions
-				String valueStart = currentArgList.remove(currentArgList.size() - 1);
-				String suggestionBase = currentArgList.isEmpty() ? "" : String.join(delimiter, currentArgList) + delimiter;
-
-				List<IStringTooltip> returnValues = new ArrayList<>();
-				for(IStringTooltip str : values) {
-					if(str.getSuggestion().startsWith(valueStart)) {
-						returnValues.add(StringTooltip.of(suggestionBase + str.getSuggestion(), str.getTooltip()));
-					}
+			List<IStringTooltip> returnValues = new ArrayList<>();
+			for(IStringTooltip value : index.tooltips) {
+				String suggestion = value.getSuggestion();
+				if(suggestion.startsWith(valueStart) && !enteredValues.contains(suggestion)) {
+					returnValues.add(StringTooltip.of(suggestionBase + suggestion, value.getTooltip()));
 				}
-				return returnValues.toArray(new IStringTooltip[0]);
 			}
+			return returnValues.toArray(new IStringTooltip[0]);
 		}));
 	}
 
+	/**
+	 * Gets the index of values which a sender can enter, using a cached index if
+	 * there is one that hasn't expired
+	 */
+	private ValueIndex getIndex(CommandSender sender) {
+		if(cacheDurationNanos == 0 || !(sender instanceof Player player)) {
+			return new ValueIndex(supplier.apply(sender));
+		}
+
+		long now = System.nanoTime();
+		ValueIndex index = cachedIndexes.get(player.getUniqueId());
+		if(index == null || now - index.createdAt >= cacheDurationNanos) {
+			// Clear out the indexes of other players which have expired too
+			cachedIndexes.values().removeIf(cached -> now - cached.createdAt >= cacheDurationNanos);
+			index = new ValueIndex(supplier.apply(sender));
+			cachedIndexes.put(player.getUniqueId(), index);
+		}
+		return index;
+	}
+
 	@Override
 	public Class<List> getPrimitiveType() {
 		return List.class;
@@ -136,27 +137,42 @@ public class ListArgument<T> extends Argument<List> implements IGreedyArgument {
 	@Override
 	public <CommandListenerWrapper> List<T> parseArgument(NMS<CommandListenerWrapper> nms,
 			CommandContext<CommandListenerWrapper> cmdCtx, String key, Object[] previousArgs) throws CommandSyntaxException {
-		// Get the list of values which this can take
-		Map<IStringTooltip, T> values = new HashMap<>();
-		for(T object : supplier.apply(nms.getCommandSenderFromCSS(cmdCtx.getSource()))) {
-			values.put(mapper.apply(object), object);
-		}
+		// Get the values which this can take
+		ValueIndex index = getIndex(nms.getCommandSenderFromCSS(cmdCtx.getSource()));
 
 		// If the argument argument's value is in the list of values, include it
 		List<T> list = new ArrayList<>();
-		String[] strArr = cmdCtx.getArgument(key, String.class).split(Pattern.quote(delimiter));
-		for(String str : strArr) {
-			// Yes, this isn't an instant lookup HashMap, but this is the best we can do
-			for(IStringTooltip value : values.keySet()) {
-				if(value.getSuggestion().equals(str)) {
-					if(allowDuplicates) {
-						list.add(values.get(value));
-					} else if(!list.contains(values.get(value))) {
-						list.add(values.get(value));
-					}
+		Set<T> seen = new HashSet<>();
+		for(String str : splitter.split(cmdCtx.getArgument(key, String.class))) {
+			if(index.values.containsKey(str)) {
+				T value = index.values.get(str);
+				if(allowDuplicates || seen.add(value)) {
+					list.add(value);
 				}
 			}
 		}
 		return list;
 	}
+
+	/**
+	 * The values which a sender can enter, indexed by their suggestion. If more
+	 * than one value has the same suggestion, the first one is used.
+	 */
+	private final class ValueIndex {
+
+		private final long createdAt = System.nanoTime();
+		private final Map<String, T> values = new LinkedHashMap<>();
+		private final List<IStringTooltip> tooltips = new ArrayList<>();
+
+		ValueIndex(Collection<T> objects) {
+			for(T object : objects) {
+				IStringTooltip tooltip = mapper.apply(object);
+				if(!values.containsKey(tooltip.getSuggestion())) {
+					values.put(tooltip.getSuggestion(), object);
+					tooltips.add(tooltip);
+				}
+			}
+		}
+
+	}
 }
@@ -19,6 +19,7 @@ public class ListArgumentBuilder<T> {
 	private final String nodeName;
 	private final String delimiter;
 	private boolean allowDuplicates = false;
+	private long cacheDurationMillis = 0;
 
 	/**
 	 * Creates a new ListArgumentBuilder with a specified node name. Defaults the
@@ -54,6 +55,20 @@ public class ListArgumentBuilder<T> {
 		return this;
 	}
 
+	/**
+	 * Caches the values provided by the list for each player, so the list isn't
+	 * provided again on every keystroke. By default, values are not cached.
+	 * 
+	 * @param cacheDurationMillis how long each player's values are kept for, in
+	 *                            milliseconds. If this is 0 or less, nothing is
+	 *                            cached
+	 * @return this list argument builder
+	 */
+	public ListArgumentBuilder<T> cacheValues(long cacheDurationMillis) {
+		this.cacheDurationMillis = cacheDurationMillis;
+		return this;
+	}
+
 	/**
 	 * Specifies the list to use to generate suggestions for the list argument
 	 * 
@@ -147,7 +162,8 @@ public class ListArgumentBuilder<T> {
 			 * @return a {@link ListArgument}
 			 */
 			public ListArgument<T> build() {
-				return new ListArgument<>(nodeName, delimiter, allowDuplicates, supplier, mapper);
+				return new ListArgument<>(nodeName, delimiter, allowDuplicates, supplier, mapper,
+						cacheDurationMillis);
 			}
 		}
 	}
@@ -0,0 +1,95 @@
+package dev.jorel.commandapi.arguments;
+
+import java.util.function.BiPredicate;
+
+import org.bukkit.Location;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Team;
+
+/**
+ * Common filters for {@link ArgumentSuggestions#onlinePlayers(BiPredicate)},
+ * which decide whether a player is suggested to a command sender. Filters can
+ * be combined with {@link BiPredicate#and(BiPredicate)}.
+ *
+ * Filters which compare the sender's location let every player through if the
+ * sender doesn't have a location (for example, the console).
+ */
+public final class PlayerFilters {
+
+	private PlayerFilters() {
+	}
+
+	/**
+	 * @return a filter which only lets through players that the sender can see.
+	 *         Players who are hidden from the sender with
+	 *         {@link Player#hidePlayer} are not suggested
+	 */
+	public static BiPredicate<CommandSender, Player> visible() {
+		return (sender, player) -> !(sender instanceof Player viewer) || viewer.canSee(player);
+	}
+
+	/**
+	 * @return a filter which only lets through players other than the sender
+	 */
+	public static BiPredicate<CommandSender, Player> others() {
+		return (sender, player) -> !player.equals(sender);
+	}
+
+	/**
+	 * @return a filter which only lets through players in the same world as the
+	 *         sender
+	 */
+	public static BiPredicate<CommandSender, Player> sameWorld() {
+		return (sender, player) -> {
+			Location location = getLocation(sender);
+			return location == null || player.getWorld().equals(location.getWorld());
+		};
+	}
+
+	/**
+	 * @param distance the maximum distance, in blocks
+	 * @return a filter which only lets through players in the same world as the
+	 *         sender, and within {@code distance} blocks of them
+	 */
+	public static BiPredicate<CommandSender, Player> within(double distance) {
+		double distanceSquared = distance * distance;
+		return (sender, player) -> {
+			Location location = getLocation(sender);
+			if (location == null) {
+				return true;
+			}
+			Location playerLocation = player.getLocation();
+			return playerLocation.getWorld().equals(location.getWorld())
+					&& playerLocation.distanceSquared(location) <= distanceSquared;
+		};
+	}
+
+	/**
+	 * @return a filter which only lets through players on the same scoreboard team
+	 *         as the sender. If the sender isn't a player, or isn't on a team,
+	 *         every player is let through
+	 */
+	public static BiPredicate<CommandSender, Player> sameTeam() {
+		return (sender, player) -> {
+			if (!(sender instanceof Player viewer)) {
+				return true;
+			}
+			Team team = viewer.getScoreboard().getEntryTeam(viewer.getName());
+			return team == null || team.hasEntry(player.getName());
+		};
+	}
+
+	private static Location getLocation(CommandSender sender) {
+		if (sender instanceof Entity entity) {
+			return entity.getLocation();
+		} else if (sender instanceof BlockCommandSender block) {
+			return block.getBlock().getLocation();
+		} else {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package dev.jorel.commandapi.arguments;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.Message;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import dev.jorel.commandapi.IStringTooltip;
+
+/**
+ * An immutable index of suggestions which can be searched by prefix. The
+ * suggestions are lowercased and sorted once when the index is created, so
+ * finding the suggestions which start with a prefix is a binary search for the
+ * first match followed by a scan over the matches, instead of lowercasing and
+ * checking every suggestion.
+ */
+final class PrefixIndex {
+
+	// Lowercased suggestions, in sorted order
+	private final String[] keys;
+
+	// The suggestions and their tooltips, in the same order as keys
+	private final String[] suggestions;
+	private final Message[] tooltips;
+
+	private final int limit;
+
+	private PrefixIndex(Entry[] entries, int limit) {
+		Arrays.sort(entries, Comparator.comparing(Entry::key));
+		this.keys = new String[entries.length];
+		this.suggestions = new String[entries.length];
+		this.tooltips = new Message[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			keys[i] = entries[i].key();
+			suggestions[i] = entries[i].suggestion();
+			tooltips[i] = entries[i].tooltip();
+		}
+		this.limit = limit <= 0 ? Integer.MAX_VALUE : limit;
+	}
+
+	/**
+	 * Creates an index of strings
+	 *
+	 * @param limit       the maximum number of suggestions to return for a prefix,
+	 *                    or 0 for no limit
+	 * @param suggestions the strings to index
+	 * @return an index of the provided strings
+	 */
+	static PrefixIndex of(int limit, String... suggestions) {
+		Entry[] entries = new Entry[suggestions.length];
+		for (int i = 0; i < suggestions.length; i++) {
+			entries[i] = new Entry(suggestions[i].toLowerCase(Locale.ROOT), suggestions[i], null);
+		}
+		return new PrefixIndex(entries, limit);
+	}
+
+	/**
+	 * Creates an index of strings with tooltips
+	 *
+	 * @param limit       the maximum number of suggestions to return for a prefix,
+	 *                    or 0 for no limit
+	 * @param suggestions the strings with tooltips to index
+	 * @return an index of the provided strings with tooltips
+	 */
+	static PrefixIndex of(int limit, IStringTooltip... suggestions) {
+		Entry[] entries = new Entry[suggestions.length];
+		for (int i = 0; i < suggestions.length; i++) {
+			String suggestion = suggestions[i].getSuggestion();
+			String tooltip = suggestions[i].getTooltip();
+			entries[i] = new Entry(suggestion.toLowerCase(Locale.ROOT), suggestion,
+					tooltip == null ? null : new LiteralMessage(tooltip));
+		}
+		return new PrefixIndex(entries, limit);
+	}
+
+	/**
+	 * Adds every indexed suggestion which starts with the builder's remaining
+	 * input (ignoring case) to the builder, up to this index's limit
+	 *
+	 * @param builder the builder to add suggestions to
+	 * @return the built suggestions
+	 */
+	Suggestions suggest(SuggestionsBuilder builder) {
+		String prefix = builder.getRemainingLowerCase();
+		int count = 0;
+		for (int i = firstIndexOf(prefix); i < keys.length && count < limit && keys[i].startsWith(prefix); i++) {
+			if (tooltips[i] == null) {
+				builder.suggest(suggestions[i]);
+			} else {
+				builder.suggest(suggestions[i], tooltips[i]);
+			}
+			count++;
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the index of the first key which is greater than or equal to the
+	 *         prefix. Every key starting with the prefix is at or after this index
+	 */
+	private int firstIndexOf(String prefix) {
+		int low = 0;
+		int high = keys.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].compareTo(prefix) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private record Entry(String key, String suggestion, Message tooltip) {
+	}
+
+}
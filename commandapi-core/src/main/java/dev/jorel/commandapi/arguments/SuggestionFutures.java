@@ -0,0 +1,37 @@
+package dev.jorel.commandapi.arguments;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Utilities for the futures of asynchronous suggestions
+ */
+final class SuggestionFutures {
+
+	private SuggestionFutures() {
+	}
+
+	/**
+	 * Like {@link CompletableFuture#thenApply(Function)}, except cancelling the
+	 * returned future also cancels the source future. Suggestions are cancelled
+	 * when the sender keeps typing, and this lets the cancellation reach the task
+	 * which is computing them, such as a task on the CommandAPI's
+	 * {@link dev.jorel.commandapi.AsyncExecutor}.
+	 *
+	 * @param <T>      the type of the source future's result
+	 * @param <U>      the type of the returned future's result
+	 * @param source   the future to transform
+	 * @param function the function to apply to the source future's result
+	 * @return a future which completes with the result of the function
+	 */
+	static <T, U> CompletableFuture<U> thenApply(CompletableFuture<T> source, Function<? super T, ? extends U> function) {
+		CompletableFuture<U> result = source.thenApply(function);
+		result.whenComplete((value, throwable) -> {
+			if (result.isCancelled()) {
+				source.cancel(true);
+			}
+		});
+		return result;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2018, 2022 Jorel Ali (Skepter) - MIT License
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package dev.jorel.commandapi.executors;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import dev.jorel.commandapi.CommandAPI;
+import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
+
+/**
+ * The interface for asynchronous command executors. Asynchronous executors are
+ * run on the CommandAPI's {@link dev.jorel.commandapi.AsyncExecutor} instead of
+ * the main server thread, so they can perform slow operations (such as database
+ * queries) without blocking the server. The command itself returns 1 as soon
+ * as the executor has been scheduled.
+ *
+ * If the executor throws a {@link WrapperCommandSyntaxException} (for example,
+ * from {@link CommandAPI#fail(String)}), or the future that it returns
+ * completes exceptionally with one, its message is sent to the sender in the
+ * same way as a synchronous command failure. If the executor can't be
+ * scheduled because the {@link dev.jorel.commandapi.AsyncExecutor}'s queue is
+ * full, the sender is told that the command couldn't be run.
+ *
+ * Asynchronous executors must not use the Bukkit API directly. Use
+ * {@link CommandAPI#runOnMainThread(java.util.function.Supplier)} to run code
+ * on the main server thread instead.
+ *
+ * @param <T> the commandsender
+ */
+public interface IExecutorAsync<T extends CommandSender> extends IExecutorNormal<T> {
+
+	/**
+	 * Schedules this executor to run asynchronously.
+	 * @param sender the command sender for this command
+	 * @param args the arguments provided to this command
+	 */
+	@Override
+	default void run(T sender, Object[] args) {
+		CommandAPI.getAsyncExecutor().supply(sender, () -> {
+			try {
+				CompletableFuture<Integer> future = runAsync(sender, args);
+				if (future == null) {
+					return CompletableFuture.<Integer>failedFuture(new IllegalStateException(
+							"The asynchronous executor of a command returned null instead of a CompletableFuture"));
+				}
+				return future;
+			} catch (WrapperCommandSyntaxException e) {
+				return CompletableFuture.<Integer>failedFuture(e);
+			}
+		}).thenCompose(future -> future).whenComplete((result, throwable) -> {
+			if (throwable != null) {
+				reportFailure(sender, throwable);
+			}
+		});
+	}
+
+	/**
+	 * Executes the command. This is run asynchronously.
+	 * @param sender the command sender for this command
+	 * @param args the arguments provided to this command
+	 * @return a future which completes with the result of this command. This must
+	 *         not be null
+	 * @throws WrapperCommandSyntaxException if an error occurs during the execution of this command
+	 */
+	CompletableFuture<Integer> runAsync(T sender, Object[] args) throws WrapperCommandSyntaxException;
+
+	private static void reportFailure(CommandSender sender, Throwable throwable) {
+		Throwable cause = throwable;
+		while (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+
+		if (cause instanceof WrapperCommandSyntaxException exception) {
+			sendFailure(sender, exception.getException().getRawMessage().getString());
+		} else if (cause instanceof RejectedExecutionException exception) {
+			CommandAPI.logError("Could not schedule an asynchronous command for " + sender.getName() + ": "
+					+ exception.getMessage());
+			sendFailure(sender, "This command could not be run because the server is busy. Please try again later");
+		} else if (!(cause instanceof CancellationException)) {
+			cause.printStackTrace(System.out);
+		}
+	}
+
+	private static void sendFailure(CommandSender sender, String message) {
+		CommandAPI.runOnMainThread(() -> {
+			sender.sendMessage(ChatColor.RED + message);
+			return null;
+		});
+	}
+
+}
@@ -0,0 +1,130 @@
+package dev.jorel.commandapi.nms;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typed read and write access to a (usually private) field. The field is
+ * looked up once, and reads and writes go through method handles instead of
+ * {@link Field#get(Object)} and {@link Field#set(Object, Object)}. Unlike a
+ * {@link java.lang.invoke.VarHandle}, this can also write to final instance
+ * fields.
+ *
+ * Accessors are cached per class and field name, so each field is only looked
+ * up once no matter how many times {@link #of(Class, String, Class)} is
+ * called. NMS implementations should store their accessors in static final
+ * fields, so the lookup happens when the class is loaded rather than during
+ * command parsing.
+ *
+ * @param <T> the class which declares the field
+ * @param <F> the type of the field
+ */
+public final class FieldAccessor<T, F> {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<Map<String, FieldAccessor<?, ?>>> ACCESSORS = new ClassValue<>() {
+		@Override
+		protected Map<String, FieldAccessor<?, ?>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private final Field field;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	private FieldAccessor(Field field) throws IllegalAccessException {
+		field.setAccessible(true);
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		this.field = field;
+		this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+	}
+
+	/**
+	 * Returns the accessor for a field, looking it up if it hasn't been looked up
+	 * already. This is safe to call from any thread.
+	 *
+	 * @param <T>       the class which declares the field
+	 * @param <F>       the type of the field
+	 * @param clazz     the class which declares the field
+	 * @param name      the name of the field
+	 * @param fieldType the type of the field
+	 * @return the accessor for this field, or null if the field could not be
+	 *         found or accessed
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T, F> FieldAccessor<T, F> of(Class<T> clazz, String name, Class<? super F> fieldType) {
+		try {
+			return (FieldAccessor<T, F>) ACCESSORS.get(clazz).computeIfAbsent(name, fieldName -> {
+				try {
+					Field field = clazz.getDeclaredField(fieldName);
+					if (field.getType() != fieldType) {
+						throw new IllegalArgumentException("Field " + clazz.getName() + "." + fieldName + " is of type "
+								+ field.getType().getName() + ", not " + fieldType.getName());
+					}
+					return new FieldAccessor<>(field);
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the value of this field
+	 *
+	 * @param instance the object to read the field from
+	 * @return the value of the field
+	 */
+	@SuppressWarnings("unchecked")
+	public F get(T instance) {
+		try {
+			return (F) (Object) getter.invokeExact((Object) instance);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	/**
+	 * Writes a value to this field
+	 *
+	 * @param instance the object to write the field to
+	 * @param value    the new value of the field
+	 */
+	public void set(T instance, F value) {
+		try {
+			setter.invokeExact((Object) instance, (Object) value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	/**
+	 * @return the field that this accessor reads and writes
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	private static RuntimeException rethrow(Throwable throwable) {
+		if (throwable instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		} else if (throwable instanceof Error error) {
+			throw error;
+		} else {
+			// Getters and setters can't throw checked exceptions
+			return new IllegalStateException(throwable);
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+package dev.jorel.commandapi.nms;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.bukkit.NamespacedKey;
+
+import dev.jorel.commandapi.wrappers.SimpleFunctionWrapper;
+
+/**
+ * A cache of the {@link SimpleFunctionWrapper}s of the server's functions and
+ * tags. Converting a function into a wrapper creates a new invoker for it, so
+ * each function is only converted the first time it is used. Wrappers don't
+ * compute their commands until {@link SimpleFunctionWrapper#getCommands()} is
+ * called.
+ *
+ * Functions parsed from a function argument are looked up by the NMS function
+ * itself, while functions, tags and the sets of their names that are looked up
+ * through {@link SimpleFunctionWrapper} are cached by {@link NamespacedKey}.
+ * Everything is stored in a single snapshot which is replaced when datapacks
+ * are reloaded, so a lookup never sees a mix of functions from before and
+ * after a reload.
+ *
+ * Datapacks can be reloaded without the CommandAPI knowing, for example by
+ * {@code /minecraft:reload} on Spigot. To detect this, each snapshot records
+ * the object which the server's functions were loaded from, and the snapshot
+ * is replaced as soon as the server's current object is a different one. NMS
+ * implementations should also {@link #invalidate()} this cache when they
+ * reload datapacks themselves.
+ *
+ * @param <F> the type of an NMS function
+ */
+public final class FunctionCache<F> {
+
+	// The source of an invalidated snapshot, which never matches the server's
+	private static final Object INVALIDATED = new Object();
+
+	private final Function<F, SimpleFunctionWrapper> converter;
+	private final Supplier<Object> source;
+	private volatile Snapshot<F> snapshot = new Snapshot<>(INVALIDATED);
+
+	/**
+	 * @param converter converts an NMS function into a SimpleFunctionWrapper
+	 * @param source    gets the object which the server's functions were loaded
+	 *                  from, such as its datapack resources. This must return a
+	 *                  different object after datapacks are reloaded, and must
+	 *                  be cheap to call, as it is called on every lookup
+	 */
+	public FunctionCache(Function<F, SimpleFunctionWrapper> converter, Supplier<Object> source) {
+		this.converter = converter;
+		this.source = source;
+	}
+
+	/**
+	 * Gets the wrapper of an NMS function, converting it if it isn't cached
+	 *
+	 * @param function the NMS function
+	 * @return the wrapper of the function
+	 */
+	public SimpleFunctionWrapper get(F function) {
+		Map<F, SimpleFunctionWrapper> wrappers = current().wrappers;
+		SimpleFunctionWrapper wrapper = wrappers.get(function);
+		if (wrapper == null) {
+			wrapper = converter.apply(function);
+			wrappers.put(function, wrapper);
+		}
+		return wrapper;
+	}
+
+	/**
+	 * Gets the wrapper of a function by its key
+	 *
+	 * @param key    the key of the function
+	 * @param finder finds the NMS function with a given key if it isn't cached
+	 * @return the wrapper of the function
+	 */
+	public SimpleFunctionWrapper getFunction(NamespacedKey key, Function<NamespacedKey, F> finder) {
+		Map<NamespacedKey, SimpleFunctionWrapper> functions = current().functions;
+		SimpleFunctionWrapper wrapper = functions.get(key);
+		if (wrapper == null) {
+			wrapper = get(finder.apply(key));
+			functions.put(key, wrapper);
+		}
+		return wrapper;
+	}
+
+	/**
+	 * Gets the wrappers of the functions in a tag
+	 *
+	 * @param key    the key of the tag, without a # symbol
+	 * @param finder finds the NMS functions in the tag with a given key if it
+	 *               isn't cached
+	 * @return a new array of the wrappers of the functions in the tag
+	 */
+	public SimpleFunctionWrapper[] getTag(NamespacedKey key, Function<NamespacedKey, Collection<F>> finder) {
+		Map<NamespacedKey, SimpleFunctionWrapper[]> tags = current().tags;
+		SimpleFunctionWrapper[] wrappers = tags.get(key);
+		if (wrappers == null) {
+			Collection<F> functions = finder.apply(key);
+			wrappers = new SimpleFunctionWrapper[functions.size()];
+			int i = 0;
+			for (F function : functions) {
+				wrappers[i++] = get(function);
+			}
+			tags.put(key, wrappers);
+		}
+		// The cached array must not be modified
+		return wrappers.clone();
+	}
+
+	/**
+	 * Gets the keys of every function that the server has registered
+	 *
+	 * @param finder finds the keys of every function if they aren't cached
+	 * @return an unmodifiable set of the keys of every function
+	 */
+	public Set<NamespacedKey> getFunctions(Supplier<Set<NamespacedKey>> finder) {
+		Snapshot<F> current = current();
+		Set<NamespacedKey> functionKeys = current.functionKeys;
+		if (functionKeys == null) {
+			functionKeys = Set.copyOf(finder.get());
+			current.functionKeys = functionKeys;
+		}
+		return functionKeys;
+	}
+
+	/**
+	 * Gets the keys of every tag that the server has registered
+	 *
+	 * @param finder finds the keys of every tag if they aren't cached
+	 * @return an unmodifiable set of the keys of every tag
+	 */
+	public Set<NamespacedKey> getTags(Supplier<Set<NamespacedKey>> finder) {
+		Snapshot<F> current = current();
+		Set<NamespacedKey> tagKeys = current.tagKeys;
+		if (tagKeys == null) {
+			tagKeys = Set.copyOf(finder.get());
+			current.tagKeys = tagKeys;
+		}
+		return tagKeys;
+	}
+
+	/**
+	 * Removes every cached function and tag. This replaces the whole cache at
+	 * once, so it is safe to call while other threads are looking up functions.
+	 */
+	public void invalidate() {
+		snapshot = new Snapshot<>(INVALIDATED);
+	}
+
+	// Gets the snapshot for the server's current functions, replacing it if they
+	// have been reloaded since it was created
+	private Snapshot<F> current() {
+		Snapshot<F> current = snapshot;
+		Object currentSource = source.get();
+		if (current.source != currentSource) {
+			current = new Snapshot<>(currentSource);
+			snapshot = current;
+		}
+		return current;
+	}
+
+	private static final class Snapshot<F> {
+
+		// Compared by identity, since it is replaced when datapacks are reloaded
+		private final Object source;
+
+		// NMS functions don't override equals, so these are compared by identity
+		private final Map<F, SimpleFunctionWrapper> wrappers = new ConcurrentHashMap<>();
+		private final Map<NamespacedKey, SimpleFunctionWrapper> functions = new ConcurrentHashMap<>();
+		private final Map<NamespacedKey, SimpleFunctionWrapper[]> tags = new ConcurrentHashMap<>();
+		private volatile Set<NamespacedKey> functionKeys;
+		private volatile Set<NamespacedKey> tagKeys;
+
+		Snapshot(Object source) {
+			this.source = source;
+		}
+
+	}
+
+}
@@ -0,0 +1,62 @@
+package dev.jorel.commandapi.nms;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A table from NMS registry entries (or their keys) to the Bukkit values that
+ * they represent. Converting an NMS value to its Bukkit equivalent often means
+ * string manipulation, searching through an enum or allocating a new wrapper,
+ * so each value is only converted the first time it is seen. After that,
+ * looking it up is a single map lookup which doesn't allocate anything.
+ *
+ * Registry entries are singletons, so they are effectively compared by
+ * identity. NMS implementations should store their tables in static final
+ * fields and {@link #clear()} them whenever datapacks are reloaded, as this
+ * can change the contents of some registries.
+ *
+ * @param <K> the type of the NMS registry entry
+ * @param <V> the type of the Bukkit value
+ */
+public final class LookupTable<K, V> {
+
+	private final Map<K, V> table = new ConcurrentHashMap<>();
+	private final Function<K, V> converter;
+
+	/**
+	 * @param converter converts a registry entry into its Bukkit value. This may
+	 *                  return null if the entry has no Bukkit value, in which case
+	 *                  nothing is stored in the table
+	 */
+	public LookupTable(Function<K, V> converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * Gets the Bukkit value of a registry entry, converting it if it isn't already
+	 * in this table. This is safe to call from any thread.
+	 *
+	 * @param key the registry entry
+	 * @return the Bukkit value of the registry entry, or null if it has none
+	 */
+	public V get(K key) {
+		V value = table.get(key);
+		if (value == null) {
+			value = converter.apply(key);
+			if (value != null) {
+				table.put(key, value);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Removes every value from this table, so they are converted again when they
+	 * are next looked up
+	 */
+	public void clear() {
+		table.clear();
+	}
+
+}
@@ -48,6 +48,12 @@ public class FunctionWrapper extends SimpleFunctionWrapper {
 		this.mapper = mapper;
 	}
 	
+	private FunctionWrapper(SimpleFunctionWrapper wrapper, Object clwArgB, Function<Entity, Object> mapper) {
+		super(wrapper);
+		this.commandListenerWrapper = clwArgB;
+		this.mapper = mapper;
+	}
+	
 	/**
 	 * Converts a SimpleFunctionWrapper into a FunctionWrapper
 	 * @param wrapper the SimpleFunctionWrapper to convert
@@ -56,7 +62,7 @@ public class FunctionWrapper extends SimpleFunctionWrapper {
 	 * @return A FunctionWrapper which is a child of the provided SimpleFunctionWrapper
 	 */
 	public static FunctionWrapper fromSimpleFunctionWrapper(SimpleFunctionWrapper wrapper, Object commandListenerWrapper, Function<Entity, Object> mapper) {
-		return new FunctionWrapper(wrapper.minecraftKey, wrapper.functionExecutor, commandListenerWrapper, mapper, wrapper.internalCommands);
+		return new FunctionWrapper(wrapper, commandListenerWrapper, mapper);
 	}
 
 	/**
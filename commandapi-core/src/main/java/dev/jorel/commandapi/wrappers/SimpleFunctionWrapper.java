@@ -21,6 +21,7 @@
 package dev.jorel.commandapi.wrappers;
 
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
 import org.bukkit.Keyed;
@@ -36,7 +37,7 @@ public class SimpleFunctionWrapper implements Keyed {
 	
 	final NamespacedKey minecraftKey;
 	final ToIntFunction<Object> functionExecutor; //What the function does
-	final String[] internalCommands;
+	final Commands internalCommands;
 	
 	/**
 	 * Creates a SimpleFunctionWrapper
@@ -44,11 +45,21 @@ public class SimpleFunctionWrapper implements Keyed {
 	 * @param invoker a method which, when invoked, runs the function
 	 * @param internalCommands a String[] of internal commands that this customFunction represents. Typically customFunction.b().map(Object::toString)
 	 */
-	@SuppressWarnings("unchecked")
 	public SimpleFunctionWrapper(NamespacedKey minecraftKey, @SuppressWarnings("rawtypes") ToIntFunction invoker, String[] internalCommands) {
+		this(minecraftKey, invoker, () -> internalCommands);
+	}
+	
+	/**
+	 * Creates a SimpleFunctionWrapper whose commands are only computed when {@link #getCommands()} is first called
+	 * @param minecraftKey the MinecraftKey which is used to reference this function
+	 * @param invoker a method which, when invoked, runs the function
+	 * @param internalCommands a supplier of the internal commands that this customFunction represents. This is called at most once
+	 */
+	@SuppressWarnings("unchecked")
+	public SimpleFunctionWrapper(NamespacedKey minecraftKey, @SuppressWarnings("rawtypes") ToIntFunction invoker, Supplier<String[]> internalCommands) {
 		this.minecraftKey = minecraftKey;
 		this.functionExecutor = invoker;
-		this.internalCommands = internalCommands;
+		this.internalCommands = new Commands(internalCommands);
 	}
 	
 	SimpleFunctionWrapper(SimpleFunctionWrapper functionWrapper) {
@@ -77,7 +88,7 @@ public class SimpleFunctionWrapper implements Keyed {
 	
 	/**
 	 * Returns a set of all functions that the server has registered
-	 * @return a set of all functions that the server has registered
+	 * @return an unmodifiable set of all functions that the server has registered
 	 */
 	public static Set<NamespacedKey> getFunctions() {
 		return CommandAPIHandler.getInstance().getNMS().getFunctions();
@@ -85,7 +96,7 @@ public class SimpleFunctionWrapper implements Keyed {
 	
 	/**
 	 * Returns a set of all tags that the server has registered
-	 * @return a set of all tags that the server has registered
+	 * @return an unmodifiable set of all tags that the server has registered
 	 */
 	public static Set<NamespacedKey> getTags() {
 		return CommandAPIHandler.getInstance().getNMS().getTags();
@@ -102,10 +113,11 @@ public class SimpleFunctionWrapper implements Keyed {
 	
 	/**
 	 * Returns an array of commands that will be executed by this FunctionWrapper 
-	 * @return the commands that are defined by this custom function
+	 * @return a new array of the commands that are defined by this custom function
 	 */
 	public String[] getCommands() {
-		return this.internalCommands;
+		// The cached array is shared, so callers get their own copy to modify
+		return this.internalCommands.get().clone();
 	}
 	
 	int runInternal(Object clw) {
@@ -121,4 +133,35 @@ public class SimpleFunctionWrapper implements Keyed {
 		return minecraftKey;
 	}
 	
+	/**
+	 * The commands of a function, which are computed the first time they are
+	 * needed. This is shared between a SimpleFunctionWrapper and the
+	 * FunctionWrappers created from it, so they are only computed once
+	 */
+	static final class Commands {
+		
+		private Supplier<String[]> supplier;
+		private volatile String[] commands;
+		
+		Commands(Supplier<String[]> supplier) {
+			this.supplier = supplier;
+		}
+		
+		String[] get() {
+			String[] result = commands;
+			if (result == null) {
+				synchronized (this) {
+					result = commands;
+					if (result == null) {
+						result = supplier.get();
+						commands = result;
+						supplier = null;
+					}
+				}
+			}
+			return result;
+		}
+		
+	}
+	
 }
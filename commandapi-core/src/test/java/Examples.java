@@ -2190,6 +2190,11 @@ class MyPlugin extends JavaPlugin {
         //Register commands, listeners etc.
     }
 
+    @Override
+    public void onDisable() {
+        CommandAPI.onDisable();
+    }
+
 }
 /* ANCHOR_END: shading */
 
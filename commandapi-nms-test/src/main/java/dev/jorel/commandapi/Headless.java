@@ -0,0 +1,269 @@
+package dev.jorel.commandapi;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+/**
+ * Sets up the CommandAPI to run without a Minecraft server, using a
+ * {@link HeadlessNMS}. This lets the CommandAPI's registration, parsing,
+ * suggestion and execution code run in tests and benchmarks on any machine.
+ *
+ * This also creates simple command senders, and can run commands and get
+ * suggestions for them as these senders. For example:
+ *
+ * <pre>
+ * Headless.setUp();
+ * new CommandAPICommand("greet").withArguments(new StringArgument("name"))
+ * 	.executes((sender, args) -&gt; {
+ * 		sender.sendMessage("Hello " + args[0]);
+ * 	}).register();
+ *
+ * Player player = Headless.createPlayer("Skepter");
+ * Headless.execute(player, "greet world");
+ * ((HeadlessSender) player).getReceivedMessages(); // ["Hello world"]
+ * </pre>
+ */
+public final class Headless {
+
+	private static CommandAPIHandler<CommandSender> handler;
+
+	private Headless() {
+	}
+
+	/**
+	 * Sets up the CommandAPI with a new {@link HeadlessNMS} and an empty command
+	 * dispatcher. This can be called multiple times, and each call replaces
+	 * everything that was registered before.
+	 *
+	 * @param config the configuration to use for the CommandAPI
+	 * @return the NMS implementation that the CommandAPI is now using
+	 */
+	public static HeadlessNMS setUp(CommandAPIConfig config) {
+		if (Bukkit.getServer() == null) {
+			Bukkit.setServer(createServer());
+		}
+		CommandAPI.config = new InternalConfig(config);
+		HeadlessNMS nms = new HeadlessNMS();
+		handler = CommandAPIHandler.initialize(nms);
+		return nms;
+	}
+
+	/**
+	 * Sets up the CommandAPI with a new {@link HeadlessNMS}, an empty command
+	 * dispatcher and a configuration which doesn't log anything
+	 *
+	 * @return the NMS implementation that the CommandAPI is now using
+	 */
+	public static HeadlessNMS setUp() {
+		return setUp(new CommandAPIConfig().silentLogs(true));
+	}
+
+	/**
+	 * @return the CommandAPI's internal handler, as created by the last call to
+	 *         {@link #setUp(CommandAPIConfig)}
+	 */
+	public static CommandAPIHandler<CommandSender> getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Runs a command as a command sender
+	 *
+	 * @param sender  the command sender to run the command as
+	 * @param command the command to run, without a leading {@code /}
+	 * @return the result of the command
+	 * @throws CommandSyntaxException if the command couldn't be parsed or it
+	 *                                failed
+	 */
+	public static int execute(CommandSender sender, String command) throws CommandSyntaxException {
+		return handler.getNMS().getBrigadierDispatcher().execute(command, sender);
+	}
+
+	/**
+	 * Gets the suggestions that a command sender sees while typing a command.
+	 * This waits for asynchronous suggestions to complete.
+	 *
+	 * @param sender the command sender typing the command
+	 * @param input  what the command sender has typed, without a leading
+	 *               {@code /}
+	 * @return the suggestions for the input
+	 */
+	public static Suggestions suggest(CommandSender sender, String input) {
+		CommandDispatcher<CommandSender> dispatcher = handler.getNMS().getBrigadierDispatcher();
+		return dispatcher.getCompletionSuggestions(dispatcher.parse(input, sender)).join();
+	}
+
+	/**
+	 * Creates a player which isn't an operator and has no permissions
+	 *
+	 * @param name the name of the player
+	 * @return a player with the given name
+	 */
+	public static Player createPlayer(String name) {
+		return createSender(Player.class, name);
+	}
+
+	/**
+	 * @return a console command sender which is an operator
+	 */
+	public static ConsoleCommandSender createConsole() {
+		ConsoleCommandSender console = createSender(ConsoleCommandSender.class, "CONSOLE");
+		console.setOp(true);
+		return console;
+	}
+
+	/**
+	 * Creates a command sender of any type. The sender has the given name and a
+	 * random UUID. It isn't an operator and has no permissions until they are
+	 * given using {@link CommandSender#setOp(boolean)} or
+	 * {@link HeadlessSender#grantPermission(String)}. Messages sent to it are
+	 * recorded, and can be read using
+	 * {@link HeadlessSender#getReceivedMessages()}. Every other method does
+	 * nothing and returns null, false or 0.
+	 *
+	 * @param <T>  the type of command sender
+	 * @param type the interface of the command sender, such as
+	 *             {@code BlockCommandSender.class}
+	 * @param name the name of the command sender
+	 * @return a command sender of the given type, which also implements
+	 *         {@link HeadlessSender}
+	 */
+	public static <T extends CommandSender> T createSender(Class<T> type, String name) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type, HeadlessSender.class },
+				new SenderHandler(type, name)));
+	}
+
+	// The state of a command sender created by createSender()
+	private static final class SenderHandler implements InvocationHandler {
+
+		private final Class<?> type;
+		private final String name;
+		private final UUID uuid = UUID.randomUUID();
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+		private final Set<String> permissions = ConcurrentHashMap.newKeySet();
+		private volatile boolean op = false;
+
+		SenderHandler(Class<?> type, String name) {
+			this.type = type;
+			this.name = name;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			return switch (method.getName()) {
+				case "getName" -> name;
+				case "getUniqueId" -> uuid;
+				case "isOp" -> op;
+				case "setOp" -> {
+					op = (boolean) args[0];
+					yield null;
+				}
+				case "hasPermission", "isPermissionSet" -> op || permissions.contains(permissionName(args[0]));
+				case "grantPermission" -> {
+					permissions.add((String) args[0]);
+					yield null;
+				}
+				case "revokePermission" -> {
+					permissions.remove(args[0]);
+					yield null;
+				}
+				case "sendMessage", "sendRawMessage" -> {
+					// The message is the last argument. Other arguments, such as the
+					// sender of the message, are ignored
+					recordMessage(args[args.length - 1]);
+					yield null;
+				}
+				case "getReceivedMessages" -> Collections.unmodifiableList(messages);
+				case "equals" -> proxy == args[0];
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "toString" -> type.getSimpleName() + "{name=" + name + "}";
+				default -> defaultValue(method.getReturnType());
+			};
+		}
+
+		private void recordMessage(Object message) {
+			if (message instanceof String[] lines) {
+				messages.addAll(Arrays.asList(lines));
+			} else if (message instanceof Component component) {
+				messages.add(PlainTextComponentSerializer.plainText().serialize(component));
+			} else if (message instanceof ComponentLike component) {
+				messages.add(PlainTextComponentSerializer.plainText().serialize(component.asComponent()));
+			} else {
+				messages.add(String.valueOf(message));
+			}
+		}
+
+		private static String permissionName(Object permission) {
+			return permission instanceof Permission bukkitPermission ? bukkitPermission.getName()
+					: (String) permission;
+		}
+
+	}
+
+	// The server that Bukkit uses. The CommandAPI only uses it for logging and to
+	// look up plugin commands and offline players, and the server's toString() is
+	// parsed for its version
+	private static Server createServer() {
+		final Logger logger = Logger.getLogger("Headless");
+		return (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[] { Server.class },
+				(proxy, method, args) -> switch (method.getName()) {
+					case "getLogger" -> logger;
+					case "getName" -> "Headless";
+					case "getVersion" -> "headless (MC: 1.19)";
+					case "getBukkitVersion" -> "1.19-R0.1-SNAPSHOT";
+					case "getOfflinePlayer" -> createOfflinePlayer(args[0]);
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "toString" -> "HeadlessServer{minecraftVersion=1.19}";
+					default -> defaultValue(method.getReturnType());
+				});
+	}
+
+	// An offline player which only knows the UUID or name that it was looked up by
+	private static OfflinePlayer createOfflinePlayer(Object id) {
+		return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(),
+				new Class<?>[] { OfflinePlayer.class }, (proxy, method, args) -> switch (method.getName()) {
+					case "getUniqueId" -> id instanceof UUID ? id : null;
+					case "getName" -> id instanceof String ? id : null;
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "toString" -> "OfflinePlayer{id=" + id + "}";
+					default -> defaultValue(method.getReturnType());
+				});
+	}
+
+	private static Object defaultValue(Class<?> type) {
+		if (!type.isPrimitive() || type == void.class) {
+			return null;
+		}
+		// The default value of an element of a new primitive array
+		return Array.get(Array.newInstance(type, 1), 0);
+	}
+
+}
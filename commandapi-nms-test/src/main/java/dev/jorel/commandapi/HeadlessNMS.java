@@ -0,0 +1,655 @@
+package dev.jorel.commandapi;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.bukkit.Axis;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.advancement.Advancement;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.help.HelpTopic;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.loot.LootTable;
+import org.bukkit.potion.PotionEffectType;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.SimpleCommandExceptionType;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+
+import dev.jorel.commandapi.arguments.EntitySelector;
+import dev.jorel.commandapi.arguments.SuggestionProviders;
+import dev.jorel.commandapi.nms.NMS;
+import dev.jorel.commandapi.wrappers.FloatRange;
+import dev.jorel.commandapi.wrappers.FunctionWrapper;
+import dev.jorel.commandapi.wrappers.IntegerRange;
+import dev.jorel.commandapi.wrappers.Location2D;
+import dev.jorel.commandapi.wrappers.MathOperation;
+import dev.jorel.commandapi.wrappers.ParticleData;
+import dev.jorel.commandapi.wrappers.Rotation;
+import dev.jorel.commandapi.wrappers.ScoreboardSlot;
+import dev.jorel.commandapi.wrappers.SimpleFunctionWrapper;
+import net.kyori.adventure.text.Component;
+import net.md_5.bungee.api.chat.BaseComponent;
+
+/**
+ * An implementation of {@link NMS} which doesn't need a Minecraft server. The
+ * command source is the {@link CommandSender} itself, commands are registered
+ * to a plain Brigadier {@link CommandDispatcher}, and entity selectors select
+ * from a list of players which is managed by hand.
+ *
+ * Arguments which are backed by Minecraft's own argument types aren't
+ * supported, and throw an {@link UnsupportedOperationException} when they are
+ * created. Arguments backed by Brigadier's argument types, such as the
+ * primitive and string arguments, work normally.
+ */
+public class HeadlessNMS implements NMS<CommandSender> {
+
+	private static final SimpleCommandExceptionType NO_PLAYER = new SimpleCommandExceptionType(
+			new LiteralMessage("No player was found"));
+
+	// Reads a selector or player name, up to the next space
+	private static final ArgumentType<String> SELECTOR = reader -> {
+		int start = reader.getCursor();
+		while (reader.canRead() && reader.peek() != ' ') {
+			reader.skip();
+		}
+		return reader.getString().substring(start, reader.getCursor());
+	};
+
+	private final CommandDispatcher<CommandSender> dispatcher = new CommandDispatcher<>();
+	private final Map<String, Player> players = new LinkedHashMap<>();
+
+	/**
+	 * Adds a player which can be selected by entity selector and player
+	 * arguments. The selectors {@code @a} and {@code @e} select every added
+	 * player, {@code @p} selects the first added player, and any other input
+	 * selects the player with that name.
+	 * 
+	 * @param player the player to add
+	 */
+	public void addPlayer(Player player) {
+		players.put(player.getName(), player);
+	}
+
+	/**
+	 * @return the players which have been added, in the order they were added
+	 */
+	public Collection<Player> getPlayers() {
+		return Collections.unmodifiableCollection(players.values());
+	}
+
+	private List<Player> select(String selector) {
+		return switch (selector) {
+			case "@a", "@e" -> new ArrayList<>(players.values());
+			case "@p" -> players.isEmpty() ? List.of() : List.of(players.values().iterator().next());
+			default -> {
+				Player player = players.get(selector);
+				yield player == null ? List.of() : List.of(player);
+			}
+		};
+	}
+
+	private static UnsupportedOperationException unsupported() {
+		return new UnsupportedOperationException("This is not supported without a Minecraft server");
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentAngle() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentAxis() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentBlockPredicate() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentBlockState() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentChat() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentChatComponent() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentChatFormat() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentDimension() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentEnchantment() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentEntity(EntitySelector selector) {
+		return SELECTOR;
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentEntitySummon() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentFloatRange() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentIntRange() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentItemPredicate() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentItemStack() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentMathOperation() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentMinecraftKeyRegistered() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentMobEffect() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentNBTCompound() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentParticle() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentPosition() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentPosition2D() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentProfile() {
+		return SELECTOR;
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentRotation() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentScoreboardCriteria() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentScoreboardObjective() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentScoreboardSlot() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentScoreboardTeam() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentScoreholder(boolean single) {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentTag() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentTime() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentUUID() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentVec2() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentVec3() {
+		throw unsupported();
+	}
+
+	@Override
+	public ArgumentType<?> _ArgumentSyntheticBiome() {
+		throw unsupported();
+	}
+
+	@Override
+	public String[] compatibleVersions() {
+		return new String[] { "headless" };
+	}
+
+	@Override
+	public String convert(ItemStack is) {
+		throw unsupported();
+	}
+
+	@Override
+	public String convert(ParticleData<?> particle) {
+		throw unsupported();
+	}
+
+	@Override
+	public String convert(PotionEffectType potion) {
+		throw unsupported();
+	}
+
+	@Override
+	public String convert(Sound sound) {
+		throw unsupported();
+	}
+
+	@Override
+	public void createDispatcherFile(File file, CommandDispatcher<CommandSender> dispatcher) throws IOException {
+		Files.write(file.toPath(), Arrays.asList(dispatcher.getAllUsage(dispatcher.getRoot(), null, false)));
+	}
+
+	@Override
+	public Advancement getAdvancement(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Component getAdventureChat(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Component getAdventureChatComponent(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public float getAngle(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public EnumSet<Axis> getAxis(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Biome getBiome(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Predicate<Block> getBlockPredicate(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public BlockData getBlockState(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public CommandDispatcher<CommandSender> getBrigadierDispatcher() {
+		return dispatcher;
+	}
+
+	@Override
+	public BaseComponent[] getChat(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public ChatColor getChatColor(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public BaseComponent[] getChatComponent(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public CommandSender getCLWFromCommandSender(CommandSender sender) {
+		return sender;
+	}
+
+	@Override
+	public CommandSender getCommandSenderFromCSS(CommandSender clw) {
+		return clw;
+	}
+
+	@Override
+	public Environment getDimension(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Enchantment getEnchantment(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Object getEntitySelector(CommandContext<CommandSender> cmdCtx, String key, EntitySelector selector)
+			throws CommandSyntaxException {
+		String selectorString = cmdCtx.getArgument(key, String.class);
+		List<Player> selected = select(selectorString);
+		return switch (selector) {
+			case MANY_ENTITIES, MANY_PLAYERS -> selected;
+			case ONE_ENTITY, ONE_PLAYER -> {
+				if (selected.size() != 1) {
+					throw NO_PLAYER.create();
+				}
+				yield selected.get(0);
+			}
+		};
+	}
+
+	@Override
+	public EntityType getEntityType(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public FloatRange getFloatRange(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public FunctionWrapper[] getFunction(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public SimpleFunctionWrapper getFunction(NamespacedKey key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Set<NamespacedKey> getFunctions() {
+		return Set.of();
+	}
+
+	@Override
+	public IntegerRange getIntRange(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public ItemStack getItemStack(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Predicate<ItemStack> getItemStackPredicate(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Location2D getLocation2DBlock(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Location2D getLocation2DPrecise(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Location getLocationBlock(CommandContext<CommandSender> cmdCtx, String str) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Location getLocationPrecise(CommandContext<CommandSender> cmdCtx, String str) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public LootTable getLootTable(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public MathOperation getMathOperation(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public NamespacedKey getMinecraftKey(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public <NBTContainer> Object getNBTCompound(CommandContext<CommandSender> cmdCtx, String key,
+			Function<Object, NBTContainer> nbtContainerConstructor) {
+		throw unsupported();
+	}
+
+	@Override
+	public String getObjective(CommandContext<CommandSender> cmdCtx, String key)
+			throws IllegalArgumentException, CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public String getObjectiveCriteria(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public ParticleData<?> getParticle(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Player getPlayer(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		List<Player> selected = select(cmdCtx.getArgument(key, String.class));
+		if (selected.size() != 1) {
+			throw NO_PLAYER.create();
+		}
+		return selected.get(0);
+	}
+
+	@Override
+	public OfflinePlayer getOfflinePlayer(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public PotionEffectType getPotionEffect(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Recipe getRecipe(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public Rotation getRotation(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public ScoreboardSlot getScoreboardSlot(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Collection<String> getScoreHolderMultiple(CommandContext<CommandSender> cmdCtx, String key)
+			throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public String getScoreHolderSingle(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public CommandSender getSenderForCommand(CommandContext<CommandSender> cmdCtx, boolean forceNative) {
+		return cmdCtx.getSource();
+	}
+
+	@Override
+	public SimpleCommandMap getSimpleCommandMap() {
+		throw unsupported();
+	}
+
+	@Override
+	public Sound getSound(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public SuggestionProvider<CommandSender> getSuggestionProvider(SuggestionProviders provider) {
+		return (cmdCtx, builder) -> builder.buildFuture();
+	}
+
+	@Override
+	public SimpleFunctionWrapper[] getTag(NamespacedKey key) {
+		throw unsupported();
+	}
+
+	@Override
+	public Set<NamespacedKey> getTags() {
+		return Set.of();
+	}
+
+	@Override
+	public String getTeam(CommandContext<CommandSender> cmdCtx, String key) throws CommandSyntaxException {
+		throw unsupported();
+	}
+
+	@Override
+	public int getTime(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public UUID getUUID(CommandContext<CommandSender> cmdCtx, String key) {
+		throw unsupported();
+	}
+
+	@Override
+	public World getWorldForCSS(CommandSender clw) {
+		return null;
+	}
+
+	@Override
+	public boolean isVanillaCommandWrapper(Command command) {
+		return false;
+	}
+
+	@Override
+	public void reloadDataPacks() {
+		// There are no datapacks to reload
+	}
+
+	@Override
+	public void resendPackets(Player player) {
+		// There is no client to send packets to
+	}
+
+	@Override
+	public HelpTopic generateHelpTopic(String commandName, String shortDescription, String fullDescription,
+			String permission) {
+		throw unsupported();
+	}
+
+	@Override
+	public void addToHelpMap(Map<String, HelpTopic> helpTopicsToAdd) {
+		// There is no help map
+	}
+
+}
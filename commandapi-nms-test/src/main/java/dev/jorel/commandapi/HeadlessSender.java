@@ -0,0 +1,32 @@
+package dev.jorel.commandapi;
+
+import java.util.List;
+
+/**
+ * Extra methods which every command sender created by {@link Headless} has.
+ * Command senders can be cast to this interface to check the messages they
+ * were sent and to change their permissions.
+ */
+public interface HeadlessSender {
+
+	/**
+	 * @return every message sent to this command sender, in the order they were
+	 *         sent
+	 */
+	List<String> getReceivedMessages();
+
+	/**
+	 * Gives this command sender a permission
+	 *
+	 * @param permission the permission to give
+	 */
+	void grantPermission(String permission);
+
+	/**
+	 * Removes a permission from this command sender
+	 *
+	 * @param permission the permission to remove
+	 */
+	void revokePermission(String permission);
+
+}
@@ -0,0 +1,122 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.arguments.Argument;
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+import dev.jorel.commandapi.arguments.CustomArgument;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.arguments.LiteralArgument;
+import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
+
+class ArgumentParsingTests extends HeadlessTest {
+
+	private final List<Object[]> results = new ArrayList<>();
+
+	@Test
+	void unlistedLiteralsAreSkipped() throws CommandSyntaxException {
+		new CommandAPICommand("give")
+			.withArguments(new LiteralArgument("item"))
+			.withArguments(new StringArgument("name"))
+			.withArguments(new IntegerArgument("amount"))
+			.executesPlayer((sender, args) -> {
+				results.add(args);
+			})
+			.register();
+
+		Headless.execute(player, "give item diamond 5");
+		assertEquals(1, results.size());
+		assertArrayEquals(new Object[] { "diamond", 5 }, results.get(0));
+	}
+
+	@Test
+	void listedLiteralsAreIncluded() throws CommandSyntaxException {
+		new CommandAPICommand("give")
+			.withArguments(new LiteralArgument("item").setListed(true))
+			.withArguments(new IntegerArgument("amount"))
+			.executesPlayer((sender, args) -> {
+				results.add(args);
+			})
+			.register();
+
+		Headless.execute(player, "give item 5");
+		assertArrayEquals(new Object[] { "item", 5 }, results.get(0));
+	}
+
+	@Test
+	void multiLiteralsAreParsed() throws CommandSyntaxException {
+		new CommandAPICommand("set")
+			.withArguments(new MultiLiteralArgument("day", "night"))
+			.withArguments(new MultiLiteralArgument("now", "later").setListed(false))
+			.withArguments(new IntegerArgument("amount"))
+			.executesPlayer((sender, args) -> {
+				results.add(args);
+			})
+			.register();
+
+		Headless.execute(player, "set night later 3");
+		Headless.execute(player, "set day now 4");
+		assertArrayEquals(new Object[] { "night", 3 }, results.get(0));
+		assertArrayEquals(new Object[] { "day", 4 }, results.get(1));
+	}
+
+	@Test
+	void previousArgumentsOnlyContainListedArguments() {
+		List<Object[]> previousArgs = new ArrayList<>();
+		new CommandAPICommand("give")
+			.withArguments(new LiteralArgument("item"))
+			.withArguments(new StringArgument("name"))
+			.withArguments(new MultiLiteralArgument("once", "twice"))
+			.withArguments(new IntegerArgument("amount").replaceSuggestions(ArgumentSuggestions.strings(info -> {
+				previousArgs.add(info.previousArgs());
+				return new String[] { "1" };
+			})))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		assertEquals(List.of("1"), suggest("give item diamond twice "));
+		assertEquals(1, previousArgs.size());
+		assertArrayEquals(new Object[] { "diamond", "twice" }, previousArgs.get(0));
+	}
+
+	@Test
+	void eachArgumentIsParsedOnce() throws CommandSyntaxException {
+		final int count = 5;
+		AtomicInteger parses = new AtomicInteger();
+		Argument<?>[] arguments = new Argument<?>[count];
+		for (int i = 0; i < count; i++) {
+			arguments[i] = new CustomArgument<String, String>(new StringArgument("arg" + i), info -> {
+				parses.incrementAndGet();
+				return info.currentInput();
+			});
+		}
+		arguments[count - 1].replaceSuggestions(ArgumentSuggestions.strings("last"));
+		new CommandAPICommand("count")
+			.withArguments(arguments)
+			.executesPlayer((sender, args) -> {
+				results.add(args);
+			})
+			.register();
+
+		Headless.execute(player, "count a b c d e");
+		assertArrayEquals(new Object[] { "a", "b", "c", "d", "e" }, results.get(0));
+		assertEquals(count, parses.get());
+
+		// Only the arguments before the suggested argument are parsed
+		parses.set(0);
+		assertEquals(List.of("last"), suggest("count a b c d "));
+		assertEquals(count - 1, parses.get());
+	}
+
+}
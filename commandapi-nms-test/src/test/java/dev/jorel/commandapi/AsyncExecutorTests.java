@@ -0,0 +1,88 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+
+class AsyncExecutorTests extends HeadlessTest {
+
+	// Blocks until the thread is interrupted, and records whether it was
+	private static boolean awaitInterrupt(CountDownLatch started) {
+		started.countDown();
+		try {
+			new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+			return false;
+		} catch (InterruptedException e) {
+			return true;
+		}
+	}
+
+	@Test
+	void cancelledQueuedTasksDontRun() throws InterruptedException {
+		AsyncExecutor executor = new AsyncExecutor(false, 1, 0, 10);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Boolean> running = executor.supply(null, () -> awaitInterrupt(started));
+		AtomicBoolean queuedRan = new AtomicBoolean();
+		CompletableFuture<Object> queued = executor.supply(null, () -> {
+			queuedRan.set(true);
+			return null;
+		});
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		assertEquals(1, executor.getStats().queuedTasks());
+
+		queued.cancel(true);
+		assertEquals(0, executor.getStats().queuedTasks());
+
+		running.cancel(true);
+		assertTrue(running.isCancelled());
+		assertFalse(queuedRan.get());
+	}
+
+	@Test
+	void shutdownCancelsQueuedTasksAndRejectsNewOnes() throws InterruptedException {
+		AsyncExecutor executor = new AsyncExecutor(false, 1, 0, 10);
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Boolean> running = executor.supply(null, () -> awaitInterrupt(started));
+		CompletableFuture<Object> queued = executor.supply(null, () -> null);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		executor.shutdown();
+		assertTrue(queued.isCancelled());
+		assertTrue(running.join());
+
+		CompletableFuture<Object> rejected = executor.supply(null, () -> null);
+		assertTrue(rejected.isCompletedExceptionally());
+		assertEquals(1, executor.getStats().rejectedTasks());
+	}
+
+	@Test
+	void cancelledSuggestionsInterruptTheirTask() throws CommandSyntaxException, InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+		ArgumentSuggestions suggestions = ArgumentSuggestions.stringsAsyncBlocking(info -> {
+			interrupted.complete(awaitInterrupt(started));
+			return new String[0];
+		});
+
+		CompletableFuture<Suggestions> result = suggestions.suggest(
+			new SuggestionInfo(null, new Object[0], "", ""), new SuggestionsBuilder("", 0));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		result.cancel(true);
+
+		assertTrue(interrupted.join());
+	}
+
+}
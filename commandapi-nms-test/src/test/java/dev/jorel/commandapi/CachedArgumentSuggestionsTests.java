@@ -0,0 +1,47 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.suggestion.Suggestion;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+import dev.jorel.commandapi.arguments.CachedArgumentSuggestions;
+import dev.jorel.commandapi.arguments.CachedArgumentSuggestions.Scope;
+
+class CachedArgumentSuggestionsTests {
+
+	private static List<String> suggest(ArgumentSuggestions suggestions, String typed) throws CommandSyntaxException {
+		SuggestionInfo info = new SuggestionInfo(null, new Object[0], typed, typed);
+		return suggestions.suggest(info, new SuggestionsBuilder(typed, 0)).join().getList().stream()
+			.map(Suggestion::getText).toList();
+	}
+
+	@Test
+	void limitedSuggestionsAreNotReusedForLongerPrefixes() throws CommandSyntaxException {
+		CachedArgumentSuggestions cached = ArgumentSuggestions
+			.cached(ArgumentSuggestions.indexed(2, "aa", "ab", "ac", "ad"), Scope.GLOBAL, Duration.ofMinutes(1));
+
+		assertEquals(List.of("aa", "ab"), suggest(cached, "a"));
+		assertEquals(List.of("ac"), suggest(cached, "ac"));
+		assertEquals(List.of("aa", "ab"), suggest(cached, "a"));
+		assertEquals(new CacheStats(1, 2, 0), cached.getStats());
+	}
+
+	@Test
+	void completeSuggestionsAreReusedForLongerPrefixes() throws CommandSyntaxException {
+		CachedArgumentSuggestions cached = ArgumentSuggestions
+			.cached(ArgumentSuggestions.indexed("aa", "ab", "ac"), Scope.GLOBAL, Duration.ofMinutes(1), 10, true);
+
+		assertEquals(List.of("aa", "ab", "ac"), suggest(cached, "a"));
+		assertEquals(List.of("ac"), suggest(cached, "ac"));
+		assertEquals(new CacheStats(1, 1, 0), cached.getStats());
+	}
+
+}
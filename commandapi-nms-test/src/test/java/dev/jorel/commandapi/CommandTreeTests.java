@@ -0,0 +1,68 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+
+import dev.jorel.commandapi.arguments.GreedyStringArgument;
+import dev.jorel.commandapi.arguments.LiteralArgument;
+import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
+
+class CommandTreeTests extends HeadlessTest {
+
+	@Test
+	void invalidTreeRegistersNothing() throws CommandSyntaxException {
+		new CommandTree("tree")
+			.then(new LiteralArgument("value").executesPlayer((sender, args) -> {
+			}))
+			.then(new GreedyStringArgument("text")
+				.then(new LiteralArgument("after").executesPlayer((sender, args) -> {
+				})))
+			.register();
+
+		assertThrows(CommandSyntaxException.class, () -> Headless.execute(player, "tree value"));
+
+		// This would conflict with the literal of the first branch if it had been
+		// registered
+		List<Object> results = new ArrayList<>();
+		new CommandAPICommand("tree")
+			.withArguments(new StringArgument("value"))
+			.executesPlayer((sender, args) -> {
+				results.add(args[0]);
+			})
+			.register();
+		Headless.execute(player, "tree value");
+		assertEquals(List.of("value"), results);
+	}
+
+	@Test
+	void multiLiteralBranchesDontShareNodes() throws CommandSyntaxException {
+		List<Object> results = new ArrayList<>();
+		new CommandTree("tree")
+			.then(new MultiLiteralArgument("add", "remove")
+				.then(new StringArgument("value").executesPlayer((sender, args) -> {
+					results.addAll(List.of(args));
+				})))
+			.register();
+		new CommandAPICommand("tree")
+			.withArguments(new LiteralArgument("add"))
+			.withArguments(new StringArgument("value"))
+			.withArguments(new LiteralArgument("now"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		Headless.execute(player, "tree remove x");
+		assertEquals(List.of("remove", "x"), results);
+		assertEquals(List.of("now"), suggest("tree add x "));
+		assertEquals(List.of(), suggest("tree remove x "));
+	}
+
+}
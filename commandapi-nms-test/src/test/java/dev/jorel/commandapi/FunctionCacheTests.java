@@ -0,0 +1,63 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bukkit.NamespacedKey;
+import org.junit.jupiter.api.Test;
+
+import dev.jorel.commandapi.nms.FunctionCache;
+import dev.jorel.commandapi.wrappers.SimpleFunctionWrapper;
+
+class FunctionCacheTests {
+
+	private static final NamespacedKey KEY = new NamespacedKey("test", "function");
+
+	private final AtomicInteger conversions = new AtomicInteger();
+	private final AtomicReference<Object> source = new AtomicReference<>(new Object());
+
+	private final FunctionCache<String> cache = new FunctionCache<>(function -> {
+		conversions.incrementAndGet();
+		return new SimpleFunctionWrapper(KEY, sender -> 0, new String[] { function });
+	}, source::get);
+
+	@Test
+	void functionsAreOnlyConvertedOnce() {
+		SimpleFunctionWrapper wrapper = cache.getFunction(KEY, key -> "say hi");
+		assertSame(wrapper, cache.getFunction(KEY, key -> "say hi"));
+		assertEquals(1, conversions.get());
+	}
+
+	@Test
+	void reloadsAreDetectedFromTheSource() {
+		SimpleFunctionWrapper wrapper = cache.getFunction(KEY, key -> "say hi");
+
+		// The server reloaded its functions without the cache being invalidated
+		source.set(new Object());
+		SimpleFunctionWrapper reloaded = cache.getFunction(KEY, key -> "say bye");
+
+		assertNotSame(wrapper, reloaded);
+		assertEquals("say bye", reloaded.getCommands()[0]);
+		assertEquals(2, conversions.get());
+	}
+
+	@Test
+	void changingTheCommandsDoesntChangeTheCache() {
+		SimpleFunctionWrapper wrapper = cache.getFunction(KEY, key -> "say hi");
+		wrapper.getCommands()[0] = "say bye";
+		assertEquals("say hi", cache.getFunction(KEY, key -> "say hi").getCommands()[0]);
+	}
+
+	@Test
+	void invalidateRemovesEveryFunction() {
+		SimpleFunctionWrapper wrapper = cache.getFunction(KEY, key -> "say hi");
+		cache.invalidate();
+		assertNotSame(wrapper, cache.getFunction(KEY, key -> "say hi"));
+		assertEquals(2, conversions.get());
+	}
+
+}
@@ -0,0 +1,33 @@
+package dev.jorel.commandapi;
+
+import java.util.List;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+
+import com.mojang.brigadier.suggestion.Suggestion;
+
+/**
+ * The base of tests which need the CommandAPI. Each test gets a new headless
+ * CommandAPI with nothing registered, and a player to run commands and get
+ * suggestions as.
+ */
+abstract class HeadlessTest {
+
+	protected Player player;
+
+	@BeforeEach
+	void setUpHeadless() {
+		Headless.setUp();
+		player = Headless.createPlayer("Skepter");
+	}
+
+	/**
+	 * @param input what the player has typed, without a leading {@code /}
+	 * @return the text of the suggestions that the player sees
+	 */
+	protected List<String> suggest(String input) {
+		return Headless.suggest(player, input).getList().stream().map(Suggestion::getText).toList();
+	}
+
+}
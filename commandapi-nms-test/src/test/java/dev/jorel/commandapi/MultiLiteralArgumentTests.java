@@ -0,0 +1,145 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.CommandNode;
+
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.arguments.LiteralArgument;
+import dev.jorel.commandapi.arguments.MultiLiteralArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
+
+class MultiLiteralArgumentTests extends HeadlessTest {
+
+	@Test
+	void suggestionsAfterMultiLiteral() {
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value").replaceSuggestions(ArgumentSuggestions
+				.strings(info -> new String[] { info.previousArgs()[0] + "1", info.previousArgs()[0] + "2" })))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		assertEquals(List.of("add1", "add2"), suggest("mode add "));
+		assertEquals(List.of("remove1", "remove2"), suggest("mode remove "));
+	}
+
+	@Test
+	void executesWithUsedLiteral() throws CommandSyntaxException {
+		List<Object> results = new ArrayList<>();
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value"))
+			.executesPlayer((sender, args) -> {
+				results.addAll(List.of(args));
+			})
+			.register();
+
+		Headless.execute(player, "mode remove x");
+		Headless.execute(player, "mode add y");
+		assertEquals(List.of("remove", "x", "add", "y"), results);
+	}
+
+	@Test
+	void laterCommandsOnlyAddToTheirOwnLiteral() {
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+		new CommandAPICommand("mode")
+			.withArguments(new LiteralArgument("add"))
+			.withArguments(new StringArgument("value"))
+			.withArguments(new LiteralArgument("now"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		assertEquals(List.of("now"), suggest("mode add x "));
+		assertEquals(List.of(), suggest("mode remove x "));
+		assertThrows(CommandSyntaxException.class, () -> Headless.execute(player, "mode remove x now"));
+	}
+
+	private static void collectNodes(CommandNode<CommandSender> node, Set<CommandNode<CommandSender>> nodes) {
+		if (nodes.add(node)) {
+			for (CommandNode<CommandSender> child : node.getChildren()) {
+				collectNodes(child, nodes);
+			}
+		}
+	}
+
+	@Test
+	void literalsShareTheNodesThatFollowThem() {
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("a", "b", "c", "d", "e"))
+			.withArguments(new MultiLiteralArgument("f", "g", "h", "i"))
+			.withArguments(new MultiLiteralArgument("j", "k", "l"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		// The command's node, then 5 + 4 + 3 literal nodes instead of 5 + 5 * 4 + 5 * 4 * 3
+		Set<CommandNode<CommandSender>> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		collectNodes(Headless.getHandler().DISPATCHER.getRoot().getChild("mode"), nodes);
+		assertEquals(13, nodes.size());
+
+		// Every combination of literals is recorded as one command
+		assertEquals(1, CommandAPI.getRegisteredCommands().size());
+		assertEquals(List.of("a|b|c|d|e:MultiLiteralArgument", "f|g|h|i:MultiLiteralArgument",
+			"j|k|l:MultiLiteralArgument"), CommandAPI.getRegisteredCommands().get(0).argsAsStr());
+	}
+
+	@Test
+	void laterCommandsUnderEveryLiteralReachEveryLiteral() {
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value"))
+			.withArguments(new LiteralArgument("now"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		assertEquals(List.of("now"), suggest("mode add x "));
+		assertEquals(List.of("now"), suggest("mode remove x "));
+	}
+
+	@Test
+	void conflictsAreFoundThroughMultiLiterals() {
+		new CommandAPICommand("mode")
+			.withArguments(new MultiLiteralArgument("add", "remove"))
+			.withArguments(new StringArgument("value"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+
+		// remove -> value is already a StringArgument
+		new CommandAPICommand("mode")
+			.withArguments(new LiteralArgument("remove"))
+			.withArguments(new IntegerArgument("value"))
+			.executesPlayer((sender, args) -> {
+			})
+			.register();
+		assertEquals(1, CommandAPI.getRegisteredCommands().size());
+	}
+
+}
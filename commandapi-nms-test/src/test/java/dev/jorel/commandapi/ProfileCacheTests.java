@@ -0,0 +1,201 @@
+package dev.jorel.commandapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bukkit.OfflinePlayer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import dev.jorel.commandapi.exceptions.WrapperCommandSyntaxException;
+
+class ProfileCacheTests extends HeadlessTest {
+
+	private static final UUID SKEPTER = UUID.randomUUID();
+	private static final UUID WILLKROBOT = UUID.randomUUID();
+	private static final UUID JORELALI = UUID.randomUUID();
+
+	/**
+	 * A profile repository which knows a fixed set of names, and counts how many
+	 * times each name is looked up
+	 */
+	private static final class CountingRepository implements ProfileRepository {
+
+		private final Map<String, UUID> uuids;
+		private final Map<String, AtomicInteger> lookups = new ConcurrentHashMap<>();
+
+		CountingRepository(Map<String, UUID> uuids) {
+			this.uuids = uuids;
+		}
+
+		@Override
+		public UUID findUniqueId(String name) {
+			lookups.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+			return uuids.get(name);
+		}
+
+		int lookups(String name) {
+			AtomicInteger count = lookups.get(name);
+			return count == null ? 0 : count.get();
+		}
+
+	}
+
+	private final CountingRepository repository = new CountingRepository(
+		Map.of("Skepter", SKEPTER, "willkroboT", WILLKROBOT, "JorelAli", JORELALI));
+
+	private static UUID lookup(ProfileCache cache, String name) {
+		return cache.getOfflinePlayer(null, name).join().getUniqueId();
+	}
+
+	@Test
+	void cachedNamesAreNotLookedUpAgain() {
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		assertEquals(SKEPTER, lookup(cache, "skepter"));
+		assertEquals(1, repository.lookups("Skepter"));
+		assertEquals(new CacheStats(1, 1, 0), cache.getStats());
+	}
+
+	@Test
+	void leastRecentlyUsedNamesAreEvicted() {
+		ProfileCache cache = new ProfileCache(repository, 2, 60_000);
+		cache.put("Skepter", SKEPTER);
+		cache.put("willkroboT", WILLKROBOT);
+
+		// Using Skepter makes willkroboT the least recently used name
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		cache.put("JorelAli", JORELALI);
+
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		assertEquals(JORELALI, lookup(cache, "JorelAli"));
+		assertEquals(WILLKROBOT, lookup(cache, "willkroboT"));
+		assertEquals(0, repository.lookups("Skepter"));
+		assertEquals(0, repository.lookups("JorelAli"));
+		assertEquals(1, repository.lookups("willkroboT"));
+	}
+
+	@Test
+	void expiredNamesAreEvicted() throws InterruptedException {
+		ProfileCache cache = new ProfileCache(repository, 10, 1);
+		cache.put("Skepter", SKEPTER);
+		Thread.sleep(10);
+
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		assertEquals(1, repository.lookups("Skepter"));
+		assertEquals(new CacheStats(0, 1, 1), cache.getStats());
+	}
+
+	@Test
+	void concurrentLookupsOfANameAreShared() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger lookups = new AtomicInteger();
+		ProfileCache cache = new ProfileCache(name -> {
+			lookups.incrementAndGet();
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return SKEPTER;
+		}, 10, 60_000);
+
+		CompletableFuture<OfflinePlayer> first = cache.getOfflinePlayer(null, "Skepter");
+		started.await(10, TimeUnit.SECONDS);
+		CompletableFuture<OfflinePlayer> second = cache.getOfflinePlayer(null, "SKEPTER");
+		release.countDown();
+
+		assertEquals(SKEPTER, first.join().getUniqueId());
+		assertEquals(SKEPTER, second.join().getUniqueId());
+		assertEquals(1, lookups.get());
+	}
+
+	@Test
+	void unknownNamesFail() {
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+
+		CompletionException exception = assertThrows(CompletionException.class,
+			() -> cache.getOfflinePlayer(null, "Notch").join());
+		assertInstanceOf(WrapperCommandSyntaxException.class, exception.getCause());
+
+		// Unknown names aren't cached, so they're looked up again
+		assertThrows(CompletionException.class, () -> cache.getOfflinePlayer(null, "Notch").join());
+		assertEquals(2, repository.lookups("Notch"));
+	}
+
+	@Test
+	void preloadDoesNotReplaceNewerEntries(@TempDir Path directory) throws IOException {
+		UUID oldSkepter = UUID.randomUUID();
+		File userCache = directory.resolve("usercache.json").toFile();
+		Files.writeString(userCache.toPath(), """
+				[
+					{"name": "Skepter", "uuid": "%s", "expiresOn": "2030-01-01 00:00:00 +0000"},
+					{"name": "willkroboT", "uuid": "%s", "expiresOn": "2030-01-01 00:00:00 +0000"},
+					{"name": "Broken", "uuid": "not a uuid"},
+					{"uuid": "%s"}
+				]""".formatted(oldSkepter, WILLKROBOT, JORELALI));
+
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+		cache.put("Skepter", SKEPTER);
+		cache.preload(userCache);
+
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		assertEquals(WILLKROBOT, lookup(cache, "willkroboT"));
+		assertEquals(0, repository.lookups("Skepter"));
+		assertEquals(0, repository.lookups("willkroboT"));
+	}
+
+	@Test
+	void preloadSkipsExpiredEntries(@TempDir Path directory) throws IOException {
+		File userCache = directory.resolve("usercache.json").toFile();
+		Files.writeString(userCache.toPath(), """
+				[
+					{"name": "Skepter", "uuid": "%s", "expiresOn": "2000-01-01 00:00:00 +0000"},
+					{"name": "willkroboT", "uuid": "%s", "expiresOn": "2030-01-01 00:00:00 +0000"}
+				]""".formatted(SKEPTER, WILLKROBOT));
+
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+		cache.preload(userCache);
+
+		assertEquals(SKEPTER, lookup(cache, "Skepter"));
+		assertEquals(WILLKROBOT, lookup(cache, "willkroboT"));
+		assertEquals(1, repository.lookups("Skepter"));
+		assertEquals(0, repository.lookups("willkroboT"));
+	}
+
+	@Test
+	void missingUserCacheIsIgnored(@TempDir Path directory) throws IOException {
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+		cache.preload(directory.resolve("usercache.json").toFile());
+		assertEquals(new CacheStats(0, 0, 0), cache.getStats());
+	}
+
+	@Test
+	void onlinePlayersAreFoundImmediately() {
+		Headless.getHandler().onlinePlayers.add(player);
+		ProfileCache cache = new ProfileCache(repository, 10, 60_000);
+
+		CompletableFuture<OfflinePlayer> result = cache.getOfflinePlayer(null, "Skepter");
+		assertSame(player, result.getNow(null));
+		assertEquals(0, repository.lookups("Skepter"));
+	}
+
+}
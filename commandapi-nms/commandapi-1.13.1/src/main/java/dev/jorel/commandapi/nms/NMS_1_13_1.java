@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -134,6 +135,7 @@ import net.minecraft.server.v1_13_R2.DimensionManager;
 import net.minecraft.server.v1_13_R2.Entity;
 import net.minecraft.server.v1_13_R2.EntityPlayer;
 import net.minecraft.server.v1_13_R2.EntitySelector;
+import net.minecraft.server.v1_13_R2.EntityTypes;
 import net.minecraft.server.v1_13_R2.EnumDirection.EnumAxis;
 import net.minecraft.server.v1_13_R2.IBlockData;
 import net.minecraft.server.v1_13_R2.IChatBaseComponent.ChatSerializer;
@@ -168,12 +170,38 @@ abstract class NMSWrapper_1_13_1 implements NMS<CommandListenerWrapper> {}
 public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	private static final MinecraftServer MINECRAFT_SERVER = ((CraftServer) Bukkit.getServer()).getServer();
+	private static final FieldAccessor<EntitySelector, Boolean> EntitySelector_m = FieldAccessor
+			.of(EntitySelector.class, "m", boolean.class);
+	private static final FieldAccessor<CraftSound, String> CraftSound_minecraftKey = FieldAccessor
+			.of(CraftSound.class, "minecraftKey", String.class);
 	private static final VarHandle LootTableRegistry_e;
 	private static final VarHandle SimpleHelpMap_helpTopics;
 	private static final VarHandle ParticleParamBlock_c;
 	private static final VarHandle ParticleParamItem_c;
 	private static final VarHandle ParticleParamRedstone_f;
 
+	// The Bukkit values of NMS registry entries, so that each entry is only
+	// converted once. See LookupTable
+	private static final LookupTable<net.minecraft.server.v1_13_R2.Enchantment, Enchantment> ENCHANTMENTS = new LookupTable<>(
+			CraftEnchantment::new);
+	private static final LookupTable<net.minecraft.server.v1_13_R2.MobEffectList, PotionEffectType> POTION_EFFECTS = new LookupTable<>(
+			CraftPotionEffectType::new);
+	// Entity types are converted by creating an entity, which doesn't depend on
+	// which world it is created in
+	private static final LookupTable<EntityTypes<?>, EntityType> ENTITY_TYPES = new LookupTable<>(
+			entityType -> entityType.a(((CraftWorld) Bukkit.getWorlds().get(0)).getHandle()).getBukkitEntity()
+					.getType());
+	private static final LookupTable<MinecraftKey, Sound> SOUNDS = new LookupTable<>(minecraftKey -> {
+		for (CraftSound sound : CraftSound.values()) {
+			if (CraftSound_minecraftKey.get(sound).equals(minecraftKey.getKey())) {
+				return Sound.valueOf(sound.name());
+			}
+		}
+		return null;
+	});
+	private static final FunctionCache<CustomFunction> FUNCTIONS = new FunctionCache<>(NMS_1_13_1::convertFunction,
+			NMS_1_13_1::getFunctionSource);
+
 	// Compute all var handles all in one go so we don't do this during main server
 	// runtime
 	static {
@@ -425,17 +453,27 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 		return CraftSound.getSound(sound);
 	}
 
+	// Datapacks are reloaded into the same function map, but every function is
+	// recreated, so any loaded function identifies the functions that are loaded
+	private static Object getFunctionSource() {
+		Iterator<CustomFunction> functions = MINECRAFT_SERVER.getFunctionData().c().values().iterator();
+		return functions.hasNext() ? functions.next() : null;
+	}
+
 	// Converts NMS function to SimpleFunctionWrapper
-	private SimpleFunctionWrapper convertFunction(CustomFunction customFunction) {
+	private static SimpleFunctionWrapper convertFunction(CustomFunction customFunction) {
 		ToIntFunction<CommandListenerWrapper> appliedObj = clw -> MINECRAFT_SERVER.getFunctionData().a(customFunction,
 				clw);
 
-		Object[] cArr = customFunction.b();
-		String[] result = new String[cArr.length];
-		for (int i = 0, size = cArr.length; i < size; i++) {
-			result[i] = cArr[i].toString();
-		}
-		return new SimpleFunctionWrapper(fromMinecraftKey(customFunction.a()), appliedObj, result);
+		// The commands are only converted to strings if they are needed
+		return new SimpleFunctionWrapper(fromMinecraftKey(customFunction.a()), appliedObj, () -> {
+			Object[] cArr = customFunction.b();
+			String[] result = new String[cArr.length];
+			for (int i = 0, size = cArr.length; i < size; i++) {
+				result[i] = cArr[i].toString();
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -571,7 +609,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	@Override
 	public Enchantment getEnchantment(CommandContext<CommandListenerWrapper> cmdCtx, String str) {
-		return new CraftEnchantment(ArgumentEnchantment.a(cmdCtx, str));
+		return ENCHANTMENTS.get(ArgumentEnchantment.a(cmdCtx, str));
 	}
 
 	@Override
@@ -579,11 +617,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 			dev.jorel.commandapi.arguments.EntitySelector selector)
 			throws CommandSyntaxException {
 		EntitySelector argument = cmdCtx.getArgument(str, EntitySelector.class);
-		try {
-			CommandAPIHandler.getInstance().getField(EntitySelector.class, "m").set(argument, false);
-		} catch (IllegalArgumentException | IllegalAccessException e1) {
-			e1.printStackTrace();
-		}
+		EntitySelector_m.set(argument, false);
 
 		return switch (selector) {
 			case MANY_ENTITIES:
@@ -621,8 +655,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 	@Override
 	public EntityType getEntityType(CommandContext<CommandListenerWrapper> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return IRegistry.ENTITY_TYPE.get(ArgumentEntitySummon.a(cmdCtx, str))
-				.a(((CraftWorld) getWorldForCSS(cmdCtx.getSource())).getHandle()).getBukkitEntity().getType();
+		return ENTITY_TYPES.get(IRegistry.ENTITY_TYPE.get(ArgumentEntitySummon.a(cmdCtx, str)));
 	}
 
 	@Override
@@ -640,7 +673,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 		CommandListenerWrapper commandListenerWrapper = cmdCtx.getSource().a().b(2);
 
 		for (CustomFunction customFunction : ArgumentTag.a(cmdCtx, str)) {
-			result.add(FunctionWrapper.fromSimpleFunctionWrapper(convertFunction(customFunction),
+			result.add(FunctionWrapper.fromSimpleFunctionWrapper(FUNCTIONS.get(customFunction),
 					commandListenerWrapper, e -> {
 						return cmdCtx.getSource().a(((CraftEntity) e).getHandle());
 					}));
@@ -651,17 +684,20 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	@Override
 	public SimpleFunctionWrapper getFunction(NamespacedKey key) {
-		return convertFunction(
-				MINECRAFT_SERVER.getFunctionData().a(new MinecraftKey(key.getNamespace(), key.getKey())));
+		return FUNCTIONS.getFunction(key,
+				functionKey -> MINECRAFT_SERVER.getFunctionData()
+						.a(new MinecraftKey(functionKey.getNamespace(), functionKey.getKey())));
 	}
 
 	@Override
 	public Set<NamespacedKey> getFunctions() {
-		Set<NamespacedKey> functions = new HashSet<>();
-		for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().c().keySet()) {
-			functions.add(fromMinecraftKey(key));
-		}
-		return functions;
+		return FUNCTIONS.getFunctions(() -> {
+			Set<NamespacedKey> functions = new HashSet<>();
+			for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().c().keySet()) {
+				functions.add(fromMinecraftKey(key));
+			}
+			return functions;
+		});
 	}
 
 	@Override
@@ -807,7 +843,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 	@Override
 	public PotionEffectType getPotionEffect(CommandContext<CommandListenerWrapper> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return new CraftPotionEffectType(ArgumentMobEffect.a(cmdCtx, str));
+		return POTION_EFFECTS.get(ArgumentMobEffect.a(cmdCtx, str));
 	}
 
 	@Override
@@ -864,18 +900,7 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	@Override
 	public Sound getSound(CommandContext<CommandListenerWrapper> cmdCtx, String key) {
-		MinecraftKey minecraftKey = ArgumentMinecraftKeyRegistered.c(cmdCtx, key);
-		for (CraftSound sound : CraftSound.values()) {
-			try {
-				if (CommandAPIHandler.getInstance().getField(CraftSound.class, "minecraftKey").get(sound)
-						.equals(minecraftKey.getKey())) {
-					return Sound.valueOf(sound.name());
-				}
-			} catch (IllegalArgumentException | IllegalAccessException e1) {
-				e1.printStackTrace();
-			}
-		}
-		return null;
+		return SOUNDS.get(ArgumentMinecraftKeyRegistered.c(cmdCtx, key));
 	}
 
 	@Differs(from = "1.13", by = "use of getLootTableRegistry() instead of .aP(). No use of ::iterator for advancements")
@@ -905,22 +930,20 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	@Override
 	public SimpleFunctionWrapper[] getTag(NamespacedKey key) {
-		List<CustomFunction> customFunctions = new ArrayList<>(
-				MINECRAFT_SERVER.getFunctionData().g().b(new MinecraftKey(key.getNamespace(), key.getKey())).a());
-		SimpleFunctionWrapper[] result = new SimpleFunctionWrapper[customFunctions.size()];
-		for (int i = 0, size = customFunctions.size(); i < size; i++) {
-			result[i] = convertFunction(customFunctions.get(i));
-		}
-		return result;
+		return FUNCTIONS.getTag(key,
+				tagKey -> MINECRAFT_SERVER.getFunctionData().g()
+						.b(new MinecraftKey(tagKey.getNamespace(), tagKey.getKey())).a());
 	}
 
 	@Override
 	public Set<NamespacedKey> getTags() {
-		Set<NamespacedKey> functions = new HashSet<>();
-		for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().g().a()) {
-			functions.add(fromMinecraftKey(key));
-		}
-		return functions;
+		return FUNCTIONS.getTags(() -> {
+			Set<NamespacedKey> functions = new HashSet<>();
+			for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().g().a()) {
+				functions.add(fromMinecraftKey(key));
+			}
+			return functions;
+		});
 	}
 
 	@Override
@@ -950,7 +973,9 @@ public class NMS_1_13_1 extends NMSWrapper_1_13_1 {
 
 	@Override
 	public void reloadDataPacks() {
-		// Datapacks don't need reloading in this version
+		// Datapacks don't need reloading in this version, but functions may have been
+		// reloaded with /reload
+		FUNCTIONS.invalidate();
 	}
 
 	@Override
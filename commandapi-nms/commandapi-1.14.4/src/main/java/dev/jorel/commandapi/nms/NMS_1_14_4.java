@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -133,6 +134,7 @@ import net.minecraft.server.v1_14_R1.DimensionManager;
 import net.minecraft.server.v1_14_R1.Entity;
 import net.minecraft.server.v1_14_R1.EntityPlayer;
 import net.minecraft.server.v1_14_R1.EntitySelector;
+import net.minecraft.server.v1_14_R1.EntityTypes;
 import net.minecraft.server.v1_14_R1.EnumDirection.EnumAxis;
 import net.minecraft.server.v1_14_R1.IBlockData;
 import net.minecraft.server.v1_14_R1.IChatBaseComponent.ChatSerializer;
@@ -162,11 +164,37 @@ import net.minecraft.server.v1_14_R1.Vec3D;
 public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	private static final MinecraftServer MINECRAFT_SERVER = ((CraftServer) Bukkit.getServer()).getServer();
+	private static final FieldAccessor<EntitySelector, Boolean> EntitySelector_checkPermissions = FieldAccessor
+			.of(EntitySelector.class, "checkPermissions", boolean.class);
+	private static final FieldAccessor<CraftSound, String> CraftSound_minecraftKey = FieldAccessor
+			.of(CraftSound.class, "minecraftKey", String.class);
 	private static final VarHandle SimpleHelpMap_helpTopics;
 	private static final VarHandle ParticleParamBlock_c;
 	private static final VarHandle ParticleParamItem_c;
 	private static final VarHandle ParticleParamRedstone_f;
 
+	// The Bukkit values of NMS registry entries, so that each entry is only
+	// converted once. See LookupTable
+	private static final LookupTable<net.minecraft.server.v1_14_R1.Enchantment, Enchantment> ENCHANTMENTS = new LookupTable<>(
+			CraftEnchantment::new);
+	private static final LookupTable<net.minecraft.server.v1_14_R1.MobEffectList, PotionEffectType> POTION_EFFECTS = new LookupTable<>(
+			CraftPotionEffectType::new);
+	// Entity types are converted by creating an entity, which doesn't depend on
+	// which world it is created in
+	private static final LookupTable<EntityTypes<?>, EntityType> ENTITY_TYPES = new LookupTable<>(
+			entityType -> entityType.a(((CraftWorld) Bukkit.getWorlds().get(0)).getHandle()).getBukkitEntity()
+					.getType());
+	private static final LookupTable<MinecraftKey, Sound> SOUNDS = new LookupTable<>(minecraftKey -> {
+		for (CraftSound sound : CraftSound.values()) {
+			if (CraftSound_minecraftKey.get(sound).equals(minecraftKey.getKey())) {
+				return Sound.valueOf(sound.name());
+			}
+		}
+		return null;
+	});
+	private static final FunctionCache<CustomFunction> FUNCTIONS = new FunctionCache<>(NMS_1_14_4::convertFunction,
+			NMS_1_14_4::getFunctionSource);
+
 	// Compute all var handles all in one go so we don't do this during main server
 	// runtime
 	static {
@@ -412,17 +440,27 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 		return CraftSound.getSound(sound);
 	}
 
+	// Datapacks are reloaded into the same function map, but every function is
+	// recreated, so any loaded function identifies the functions that are loaded
+	private static Object getFunctionSource() {
+		Iterator<CustomFunction> functions = MINECRAFT_SERVER.getFunctionData().c().values().iterator();
+		return functions.hasNext() ? functions.next() : null;
+	}
+
 	// Converts NMS function to SimpleFunctionWrapper
-	private SimpleFunctionWrapper convertFunction(CustomFunction customFunction) {
+	private static SimpleFunctionWrapper convertFunction(CustomFunction customFunction) {
 		ToIntFunction<CommandListenerWrapper> appliedObj = clw -> MINECRAFT_SERVER.getFunctionData().a(customFunction,
 				clw);
 
-		Object[] cArr = customFunction.b();
-		String[] result = new String[cArr.length];
-		for (int i = 0, size = cArr.length; i < size; i++) {
-			result[i] = cArr[i].toString();
-		}
-		return new SimpleFunctionWrapper(fromMinecraftKey(customFunction.a()), appliedObj, result);
+		// The commands are only converted to strings if they are needed
+		return new SimpleFunctionWrapper(fromMinecraftKey(customFunction.a()), appliedObj, () -> {
+			Object[] cArr = customFunction.b();
+			String[] result = new String[cArr.length];
+			for (int i = 0, size = cArr.length; i < size; i++) {
+				result[i] = cArr[i].toString();
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -544,18 +582,14 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	@Override
 	public Enchantment getEnchantment(CommandContext<CommandListenerWrapper> cmdCtx, String str) {
-		return new CraftEnchantment(ArgumentEnchantment.a(cmdCtx, str));
+		return ENCHANTMENTS.get(ArgumentEnchantment.a(cmdCtx, str));
 	}
 
 	@Override
 	public Object getEntitySelector(CommandContext<CommandListenerWrapper> cmdCtx, String str,
 			dev.jorel.commandapi.arguments.EntitySelector selector) throws CommandSyntaxException {
 		EntitySelector argument = cmdCtx.getArgument(str, EntitySelector.class);
-		try {
-			CommandAPIHandler.getInstance().getField(EntitySelector.class, "checkPermissions").set(argument, false);
-		} catch (IllegalArgumentException | IllegalAccessException e1) {
-			e1.printStackTrace();
-		}
+		EntitySelector_checkPermissions.set(argument, false);
 
 		return switch (selector) {
 			case MANY_ENTITIES:
@@ -592,8 +626,7 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 	@Override
 	public EntityType getEntityType(CommandContext<CommandListenerWrapper> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return IRegistry.ENTITY_TYPE.get(ArgumentEntitySummon.a(cmdCtx, str))
-				.a(((CraftWorld) getWorldForCSS(cmdCtx.getSource())).getHandle()).getBukkitEntity().getType();
+		return ENTITY_TYPES.get(IRegistry.ENTITY_TYPE.get(ArgumentEntitySummon.a(cmdCtx, str)));
 	}
 
 	@Override
@@ -611,7 +644,7 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 		CommandListenerWrapper commandListenerWrapper = cmdCtx.getSource().a().b(2);
 
 		for (CustomFunction customFunction : ArgumentTag.a(cmdCtx, str)) {
-			result.add(FunctionWrapper.fromSimpleFunctionWrapper(convertFunction(customFunction),
+			result.add(FunctionWrapper.fromSimpleFunctionWrapper(FUNCTIONS.get(customFunction),
 					commandListenerWrapper, e -> {
 						return cmdCtx.getSource().a(((CraftEntity) e).getHandle());
 					}));
@@ -622,17 +655,20 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	@Override
 	public SimpleFunctionWrapper getFunction(NamespacedKey key) {
-		return convertFunction(
-				MINECRAFT_SERVER.getFunctionData().a(new MinecraftKey(key.getNamespace(), key.getKey())).get());
+		return FUNCTIONS.getFunction(key,
+				functionKey -> MINECRAFT_SERVER.getFunctionData()
+						.a(new MinecraftKey(functionKey.getNamespace(), functionKey.getKey())).get());
 	}
 
 	@Override
 	public Set<NamespacedKey> getFunctions() {
-		Set<NamespacedKey> functions = new HashSet<>();
-		for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().c().keySet()) {
-			functions.add(fromMinecraftKey(key));
-		}
-		return functions;
+		return FUNCTIONS.getFunctions(() -> {
+			Set<NamespacedKey> functions = new HashSet<>();
+			for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().c().keySet()) {
+				functions.add(fromMinecraftKey(key));
+			}
+			return functions;
+		});
 	}
 
 	@Override
@@ -777,7 +813,7 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 	@Override
 	public PotionEffectType getPotionEffect(CommandContext<CommandListenerWrapper> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return new CraftPotionEffectType(ArgumentMobEffect.a(cmdCtx, str));
+		return POTION_EFFECTS.get(ArgumentMobEffect.a(cmdCtx, str));
 	}
 
 	@Override
@@ -834,18 +870,7 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	@Override
 	public Sound getSound(CommandContext<CommandListenerWrapper> cmdCtx, String key) {
-		MinecraftKey minecraftKey = ArgumentMinecraftKeyRegistered.c(cmdCtx, key);
-		for (CraftSound sound : CraftSound.values()) {
-			try {
-				if (CommandAPIHandler.getInstance().getField(CraftSound.class, "minecraftKey").get(sound)
-						.equals(minecraftKey.getKey())) {
-					return Sound.valueOf(sound.name());
-				}
-			} catch (IllegalArgumentException | IllegalAccessException e1) {
-				e1.printStackTrace();
-			}
-		}
-		return null;
+		return SOUNDS.get(ArgumentMinecraftKeyRegistered.c(cmdCtx, key));
 	}
 
 	@Override
@@ -872,22 +897,20 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	@Override
 	public SimpleFunctionWrapper[] getTag(NamespacedKey key) {
-		List<CustomFunction> customFunctions = new ArrayList<>(
-				MINECRAFT_SERVER.getFunctionData().h().b(new MinecraftKey(key.getNamespace(), key.getKey())).a());
-		SimpleFunctionWrapper[] result = new SimpleFunctionWrapper[customFunctions.size()];
-		for (int i = 0, size = customFunctions.size(); i < size; i++) {
-			result[i] = convertFunction(customFunctions.get(i));
-		}
-		return result;
+		return FUNCTIONS.getTag(key,
+				tagKey -> MINECRAFT_SERVER.getFunctionData().h()
+						.b(new MinecraftKey(tagKey.getNamespace(), tagKey.getKey())).a());
 	}
 
 	@Override
 	public Set<NamespacedKey> getTags() {
-		Set<NamespacedKey> functions = new HashSet<>();
-		for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().h().a()) {
-			functions.add(fromMinecraftKey(key));
-		}
-		return functions;
+		return FUNCTIONS.getTags(() -> {
+			Set<NamespacedKey> functions = new HashSet<>();
+			for (MinecraftKey key : MINECRAFT_SERVER.getFunctionData().h().a()) {
+				functions.add(fromMinecraftKey(key));
+			}
+			return functions;
+		});
 	}
 
 	@Override
@@ -917,7 +940,9 @@ public class NMS_1_14_4 implements NMS<CommandListenerWrapper> {
 
 	@Override
 	public void reloadDataPacks() {
-		// Datapacks don't need reloading in this version
+		// Datapacks don't need reloading in this version, but functions may have been
+		// reloaded with /reload
+		FUNCTIONS.invalidate();
 	}
 
 	@Override
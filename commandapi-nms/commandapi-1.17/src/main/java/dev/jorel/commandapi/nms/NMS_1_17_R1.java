@@ -91,7 +91,6 @@ import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
 
 import dev.jorel.commandapi.CommandAPI;
-import dev.jorel.commandapi.CommandAPIHandler;
 import dev.jorel.commandapi.arguments.SuggestionProviders;
 import dev.jorel.commandapi.preprocessor.NMSMeta;
 import dev.jorel.commandapi.preprocessor.RequireField;
@@ -170,9 +169,28 @@ import net.minecraft.world.phys.Vec3;
 public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	private static final MinecraftServer MINECRAFT_SERVER = ((CraftServer) Bukkit.getServer()).getServer();
+	private static final FieldAccessor<EntitySelector, Boolean> EntitySelector_usesSelector = FieldAccessor
+			.of(EntitySelector.class, "o", boolean.class);
+	private static final FieldAccessor<ServerFunctionLibrary, CommandDispatcher<CommandSourceStack>> ServerFunctionLibrary_dispatcher = FieldAccessor
+			.of(ServerFunctionLibrary.class, "i", CommandDispatcher.class);
 	private static final VarHandle SimpleHelpMap_helpTopics;
 	private static final VarHandle EntityPositionSource_sourceEntity;
 
+	// The Bukkit values of NMS registry entries, so that each entry is only
+	// converted once. See LookupTable
+	private static final LookupTable<net.minecraft.world.item.enchantment.Enchantment, Enchantment> ENCHANTMENTS = new LookupTable<>(
+			CraftEnchantment::new);
+	private static final LookupTable<net.minecraft.world.effect.MobEffect, PotionEffectType> POTION_EFFECTS = new LookupTable<>(
+			CraftPotionEffectType::new);
+	private static final LookupTable<net.minecraft.world.entity.EntityType<?>, EntityType> ENTITY_TYPES = new LookupTable<>(
+			entityType -> EntityType.fromName(net.minecraft.world.entity.EntityType.getKey(entityType).getPath()));
+	private static final LookupTable<net.minecraft.sounds.SoundEvent, Sound> SOUNDS = new LookupTable<>(
+			CraftSound::getBukkit);
+	private static final LookupTable<ResourceLocation, Biome> BIOMES = new LookupTable<>(
+			location -> Biome.valueOf(location.getPath().toUpperCase()));
+	private static final FunctionCache<CommandFunction> FUNCTIONS = new FunctionCache<>(NMS_1_17_R1::convertFunction,
+			() -> MINECRAFT_SERVER.resources);
+
 	// Compute all var handles all in one go so we don't do this during main server
 	// runtime
 	static {
@@ -255,16 +273,19 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 	}
 
 	// Converts NMS function to SimpleFunctionWrapper
-	private SimpleFunctionWrapper convertFunction(CommandFunction commandFunction) {
+	private static SimpleFunctionWrapper convertFunction(CommandFunction commandFunction) {
 		ToIntFunction<CommandSourceStack> appliedObj = (CommandSourceStack css) -> MINECRAFT_SERVER.getFunctions()
 				.execute(commandFunction, css);
 
-		Entry[] cArr = commandFunction.getEntries();
-		String[] result = new String[cArr.length];
-		for (int i = 0, size = cArr.length; i < size; i++) {
-			result[i] = cArr[i].toString();
-		}
-		return new SimpleFunctionWrapper(fromResourceLocation(commandFunction.getId()), appliedObj, result);
+		// The commands are only converted to strings if they are needed
+		return new SimpleFunctionWrapper(fromResourceLocation(commandFunction.getId()), appliedObj, () -> {
+			Entry[] cArr = commandFunction.getEntries();
+			String[] result = new String[cArr.length];
+			for (int i = 0, size = cArr.length; i < size; i++) {
+				result[i] = cArr[i].toString();
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -298,7 +319,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public Biome getBiome(CommandContext<CommandSourceStack> cmdCtx, String key) {
-		return Biome.valueOf(cmdCtx.getArgument(key, ResourceLocation.class).getPath().toUpperCase());
+		return BIOMES.get(cmdCtx.getArgument(key, ResourceLocation.class));
 	}
 
 	@Override
@@ -342,7 +363,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public Enchantment getEnchantment(CommandContext<CommandSourceStack> cmdCtx, String str) {
-		return new CraftEnchantment(ItemEnchantmentArgument.getEnchantment(cmdCtx, str));
+		return ENCHANTMENTS.get(ItemEnchantmentArgument.getEnchantment(cmdCtx, str));
 	}
 
 	@Override
@@ -356,11 +377,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 		// entity selectors
 		// to be used by anyone that registers a command via the CommandAPI.
 		EntitySelector argument = cmdCtx.getArgument(str, EntitySelector.class);
-		try {
-			CommandAPIHandler.getInstance().getField(EntitySelector.class, "o").set(argument, false);
-		} catch (IllegalArgumentException | IllegalAccessException e1) {
-			e1.printStackTrace();
-		}
+		EntitySelector_usesSelector.set(argument, false);
 
 		return switch (selector) {
 			case MANY_ENTITIES:
@@ -394,8 +411,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 	@Override
 	public EntityType getEntityType(CommandContext<CommandSourceStack> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return EntityType.fromName(net.minecraft.world.entity.EntityType
-				.getKey(Registry.ENTITY_TYPE.get(EntitySummonArgument.getSummonableEntity(cmdCtx, str))).getPath());
+		return ENTITY_TYPES.get(Registry.ENTITY_TYPE.get(EntitySummonArgument.getSummonableEntity(cmdCtx, str)));
 	}
 
 	@Override
@@ -405,7 +421,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 		CommandSourceStack css = cmdCtx.getSource().withSuppressedOutput().withMaximumPermission(2);
 
 		for (CommandFunction commandFunction : FunctionArgument.getFunctions(cmdCtx, str)) {
-			result.add(FunctionWrapper.fromSimpleFunctionWrapper(convertFunction(commandFunction), css,
+			result.add(FunctionWrapper.fromSimpleFunctionWrapper(FUNCTIONS.get(commandFunction), css,
 					entity -> cmdCtx.getSource().withEntity(((CraftEntity) entity).getHandle())));
 		}
 		return result.toArray(new FunctionWrapper[0]);
@@ -413,17 +429,20 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public SimpleFunctionWrapper getFunction(NamespacedKey key) {
-		return convertFunction(
-				MINECRAFT_SERVER.getFunctions().get(new ResourceLocation(key.getNamespace(), key.getKey())).get());
+		return FUNCTIONS.getFunction(key,
+				functionKey -> MINECRAFT_SERVER.getFunctions()
+						.get(new ResourceLocation(functionKey.getNamespace(), functionKey.getKey())).get());
 	}
 
 	@Override
 	public Set<NamespacedKey> getFunctions() {
-		Set<NamespacedKey> result = new HashSet<>();
-		for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
-			result.add(fromResourceLocation(resourceLocation));
-		}
-		return result;
+		return FUNCTIONS.getFunctions(() -> {
+			Set<NamespacedKey> result = new HashSet<>();
+			for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
+				result.add(fromResourceLocation(resourceLocation));
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -539,7 +558,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 	@Override
 	public PotionEffectType getPotionEffect(CommandContext<CommandSourceStack> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return new CraftPotionEffectType(MobEffectArgument.getEffect(cmdCtx, str));
+		return POTION_EFFECTS.get(MobEffectArgument.getEffect(cmdCtx, str));
 	}
 
 	@Override
@@ -575,7 +594,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public Sound getSound(CommandContext<CommandSourceStack> cmdCtx, String key) {
-		return CraftSound.getBukkit(Registry.SOUND_EVENT.get(ResourceLocationArgument.getId(cmdCtx, key)));
+		return SOUNDS.get(Registry.SOUND_EVENT.get(ResourceLocationArgument.getId(cmdCtx, key)));
 	}
 
 	@Override
@@ -603,22 +622,20 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public SimpleFunctionWrapper[] getTag(NamespacedKey key) {
-		List<CommandFunction> customFunctions = MINECRAFT_SERVER.getFunctions()
-				.getTag(new ResourceLocation(key.getNamespace(), key.getKey())).getValues();
-		SimpleFunctionWrapper[] result = new SimpleFunctionWrapper[customFunctions.size()];
-		for (int i = 0, size = customFunctions.size(); i < size; i++) {
-			result[i] = convertFunction(customFunctions.get(i));
-		}
-		return result;
+		return FUNCTIONS.getTag(key,
+				tagKey -> MINECRAFT_SERVER.getFunctions()
+						.getTag(new ResourceLocation(tagKey.getNamespace(), tagKey.getKey())).getValues());
 	}
 
 	@Override
 	public Set<NamespacedKey> getTags() {
-		Set<NamespacedKey> result = new HashSet<>();
-		for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
-			result.add(fromResourceLocation(resourceLocation));
-		}
-		return result;
+		return FUNCTIONS.getTags(() -> {
+			Set<NamespacedKey> result = new HashSet<>();
+			for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
+				result.add(fromResourceLocation(resourceLocation));
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -640,6 +657,16 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 	public void reloadDataPacks() {
 		CommandAPI.logNormal("Reloading datapacks...");
 
+		// Datapacks can change the contents of registries, so convert entries again
+		ENCHANTMENTS.clear();
+		POTION_EFFECTS.clear();
+		ENTITY_TYPES.clear();
+		SOUNDS.clear();
+		BIOMES.clear();
+
+		// Functions and tags are replaced when datapacks are reloaded
+		FUNCTIONS.invalidate();
+
 		// Get previously declared recipes to be re-registered later
 		Iterator<Recipe> recipes = Bukkit.recipeIterator();
 
@@ -648,12 +675,7 @@ public class NMS_1_17_R1 extends NMS_Common<CommandSourceStack> {
 		serverResources.commands = MINECRAFT_SERVER.getCommands();
 
 		// Update the ServerFunctionLibrary's command dispatcher with the new one
-		try {
-			CommandAPIHandler.getInstance().getField(ServerFunctionLibrary.class, "i")
-					.set(serverResources.getFunctionLibrary(), getBrigadierDispatcher());
-		} catch (ReflectiveOperationException e) {
-			e.printStackTrace();
-		}
+		ServerFunctionLibrary_dispatcher.set(serverResources.getFunctionLibrary(), getBrigadierDispatcher());
 
 		// Construct the new CompletableFuture that now uses our updated serverResources
 		CompletableFuture<?> unitCompletableFuture = ((ReloadableResourceManager) serverResources.getResourceManager())
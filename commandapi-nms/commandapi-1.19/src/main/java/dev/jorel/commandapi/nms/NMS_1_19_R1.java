@@ -30,7 +30,9 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -78,26 +80,35 @@ import org.bukkit.craftbukkit.v1_19_R1.util.CraftChatMessage;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerCommandSendEvent;
 import org.bukkit.help.HelpTopic;
 import org.bukkit.inventory.ComplexRecipe;
 import org.bukkit.inventory.Recipe;
 import org.bukkit.potion.PotionEffectType;
+import org.spigotmc.SpigotConfig;
 
+import com.destroystokyo.paper.event.brigadier.AsyncPlayerSendCommandsEvent;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.Files;
 import com.google.gson.GsonBuilder;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
 import com.mojang.datafixers.util.Either;
 import com.mojang.logging.LogUtils;
 
 import dev.jorel.commandapi.CommandAPI;
 import dev.jorel.commandapi.CommandAPIHandler;
+import dev.jorel.commandapi.CommandTreeCache;
 import dev.jorel.commandapi.arguments.SuggestionProviders;
 import dev.jorel.commandapi.preprocessor.Differs;
 import dev.jorel.commandapi.preprocessor.NMSMeta;
@@ -154,6 +165,8 @@ import net.minecraft.core.particles.ShriekParticleOption;
 import net.minecraft.core.particles.SimpleParticleType;
 import net.minecraft.core.particles.VibrationParticleOption;
 import net.minecraft.network.chat.Component.Serializer;
+import net.minecraft.network.protocol.game.ClientboundCommandsPacket;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.MinecraftServer.ReloadableResources;
@@ -190,6 +203,10 @@ import net.minecraft.world.phys.Vec3;
 public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 
 	private static final MinecraftServer MINECRAFT_SERVER = ((CraftServer) Bukkit.getServer()).getServer();
+	private static final FieldAccessor<EntitySelector, Boolean> EntitySelector_usesSelector = FieldAccessor
+			.of(EntitySelector.class, "o", boolean.class);
+	private static final FieldAccessor<ServerFunctionLibrary, CommandDispatcher<CommandSourceStack>> ServerFunctionLibrary_dispatcher = FieldAccessor
+			.of(ServerFunctionLibrary.class, "i", CommandDispatcher.class);
 	private static final VarHandle SimpleHelpMap_helpTopics;
 	private static final VarHandle EntityPositionSource_sourceEntity;
 
@@ -199,6 +216,24 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	// Derived from net.minecraft.commands.Commands;
 	private static final CommandBuildContext COMMAND_BUILD_CONTEXT;
 
+	// Null if this isn't a Paper server
+	private static final HandlerList AsyncPlayerSendCommandsEvent_handlers;
+
+	// The Bukkit values of NMS registry entries, so that each entry is only
+	// converted once. See LookupTable
+	private static final LookupTable<net.minecraft.world.item.enchantment.Enchantment, Enchantment> ENCHANTMENTS = new LookupTable<>(
+			CraftEnchantment::new);
+	private static final LookupTable<net.minecraft.world.effect.MobEffect, PotionEffectType> POTION_EFFECTS = new LookupTable<>(
+			CraftPotionEffectType::new);
+	private static final LookupTable<net.minecraft.world.entity.EntityType<?>, EntityType> ENTITY_TYPES = new LookupTable<>(
+			entityType -> EntityType.fromName(net.minecraft.world.entity.EntityType.getKey(entityType).getPath()));
+	private static final LookupTable<net.minecraft.sounds.SoundEvent, Sound> SOUNDS = new LookupTable<>(
+			CraftSound::getBukkit);
+	private static final LookupTable<ResourceKey<net.minecraft.world.level.biome.Biome>, Biome> BIOMES = new LookupTable<>(
+			resourceKey -> Biome.valueOf(resourceKey.location().getPath().toUpperCase()));
+	private static final FunctionCache<CommandFunction> FUNCTIONS = new FunctionCache<>(NMS_1_19_R1::convertFunction,
+			() -> MINECRAFT_SERVER.resources);
+
 	// Compute all var handles all in one go so we don't do this during main server
 	// runtime
 	static {
@@ -225,6 +260,15 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 		// is something to decide at a later date.
 		COMMAND_BUILD_CONTEXT = new CommandBuildContext(RegistryAccess.BUILTIN.get());
 		COMMAND_BUILD_CONTEXT.missingTagAccessPolicy(CommandBuildContext.MissingTagAccessPolicy.RETURN_EMPTY);
+
+		HandlerList asyncPlayerSendCommandsEventHandlers = null;
+		try {
+			Class.forName("com.destroystokyo.paper.event.brigadier.AsyncPlayerSendCommandsEvent");
+			asyncPlayerSendCommandsEventHandlers = AsyncPlayerSendCommandsEvent.getHandlerList();
+		} catch (ClassNotFoundException e) {
+			// Not a Paper server
+		}
+		AsyncPlayerSendCommandsEvent_handlers = asyncPlayerSendCommandsEventHandlers;
 	}
 
 	private static NamespacedKey fromResourceLocation(ResourceLocation key) {
@@ -298,16 +342,19 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	}
 
 	// Converts NMS function to SimpleFunctionWrapper
-	private SimpleFunctionWrapper convertFunction(CommandFunction commandFunction) {
+	private static SimpleFunctionWrapper convertFunction(CommandFunction commandFunction) {
 		ToIntFunction<CommandSourceStack> appliedObj = (CommandSourceStack css) -> MINECRAFT_SERVER.getFunctions()
 				.execute(commandFunction, css);
 
-		Entry[] cArr = commandFunction.getEntries();
-		String[] result = new String[cArr.length];
-		for (int i = 0, size = cArr.length; i < size; i++) {
-			result[i] = cArr[i].toString();
-		}
-		return new SimpleFunctionWrapper(fromResourceLocation(commandFunction.getId()), appliedObj, result);
+		// The commands are only converted to strings if they are needed
+		return new SimpleFunctionWrapper(fromResourceLocation(commandFunction.getId()), appliedObj, () -> {
+			Entry[] cArr = commandFunction.getEntries();
+			String[] result = new String[cArr.length];
+			for (int i = 0, size = cArr.length; i < size; i++) {
+				result[i] = cArr[i].toString();
+			}
+			return result;
+		});
 	}
 
 	@Differs(from = "1.18.2", by = "ArgumentTypes -> ArgumentUtils")
@@ -365,7 +412,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 			// This is the same registry that you'll find in registries.json and
 			// in the command_registration.json
 
-			return Biome.valueOf(biomeResult.unwrap().left().get().location().getPath().toUpperCase());
+			return BIOMES.get(biomeResult.unwrap().left().get());
 		} else {
 			// This isn't a biome, tell the user this.
 
@@ -420,7 +467,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public Enchantment getEnchantment(CommandContext<CommandSourceStack> cmdCtx, String str) {
-		return new CraftEnchantment(ItemEnchantmentArgument.getEnchantment(cmdCtx, str));
+		return ENCHANTMENTS.get(ItemEnchantmentArgument.getEnchantment(cmdCtx, str));
 	}
 
 	@Override
@@ -434,11 +481,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 		// entity selectors
 		// to be used by anyone that registers a command via the CommandAPI.
 		EntitySelector argument = cmdCtx.getArgument(str, EntitySelector.class);
-		try {
-			CommandAPIHandler.getInstance().getField(EntitySelector.class, "o").set(argument, false);
-		} catch (IllegalArgumentException | IllegalAccessException e1) {
-			e1.printStackTrace();
-		}
+		EntitySelector_usesSelector.set(argument, false);
 
 		return switch (selector) {
 			case MANY_ENTITIES:
@@ -472,8 +515,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	@Override
 	public EntityType getEntityType(CommandContext<CommandSourceStack> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return EntityType.fromName(net.minecraft.world.entity.EntityType
-				.getKey(Registry.ENTITY_TYPE.get(EntitySummonArgument.getSummonableEntity(cmdCtx, str))).getPath());
+		return ENTITY_TYPES.get(Registry.ENTITY_TYPE.get(EntitySummonArgument.getSummonableEntity(cmdCtx, str)));
 	}
 
 	@Override
@@ -483,7 +525,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 		CommandSourceStack css = cmdCtx.getSource().withSuppressedOutput().withMaximumPermission(2);
 
 		for (CommandFunction commandFunction : FunctionArgument.getFunctions(cmdCtx, str)) {
-			result.add(FunctionWrapper.fromSimpleFunctionWrapper(convertFunction(commandFunction), css,
+			result.add(FunctionWrapper.fromSimpleFunctionWrapper(FUNCTIONS.get(commandFunction), css,
 					entity -> cmdCtx.getSource().withEntity(((CraftEntity) entity).getHandle())));
 		}
 		return result.toArray(new FunctionWrapper[0]);
@@ -491,17 +533,20 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public SimpleFunctionWrapper getFunction(NamespacedKey key) {
-		return convertFunction(
-				MINECRAFT_SERVER.getFunctions().get(new ResourceLocation(key.getNamespace(), key.getKey())).get());
+		return FUNCTIONS.getFunction(key,
+				functionKey -> MINECRAFT_SERVER.getFunctions()
+						.get(new ResourceLocation(functionKey.getNamespace(), functionKey.getKey())).get());
 	}
 
 	@Override
 	public Set<NamespacedKey> getFunctions() {
-		Set<NamespacedKey> result = new HashSet<>();
-		for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
-			result.add(fromResourceLocation(resourceLocation));
-		}
-		return result;
+		return FUNCTIONS.getFunctions(() -> {
+			Set<NamespacedKey> result = new HashSet<>();
+			for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
+				result.add(fromResourceLocation(resourceLocation));
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -648,7 +693,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	@Override
 	public PotionEffectType getPotionEffect(CommandContext<CommandSourceStack> cmdCtx, String str)
 			throws CommandSyntaxException {
-		return new CraftPotionEffectType(MobEffectArgument.getEffect(cmdCtx, str));
+		return POTION_EFFECTS.get(MobEffectArgument.getEffect(cmdCtx, str));
 	}
 
 	@Override
@@ -684,7 +729,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public Sound getSound(CommandContext<CommandSourceStack> cmdCtx, String key) {
-		return CraftSound.getBukkit(Registry.SOUND_EVENT.get(ResourceLocationArgument.getId(cmdCtx, key)));
+		return SOUNDS.get(Registry.SOUND_EVENT.get(ResourceLocationArgument.getId(cmdCtx, key)));
 	}
 
 	@Override
@@ -713,18 +758,20 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	@Differs(from = "1.18.2", by = "getTag() now returns a Collection<> instead of a Tag<>, so don't have to call .getValues()")
 	@Override
 	public SimpleFunctionWrapper[] getTag(NamespacedKey key) {
-		Collection<CommandFunction> customFunctions = MINECRAFT_SERVER.getFunctions()
-				.getTag(new ResourceLocation(key.getNamespace(), key.getKey()));
-		return customFunctions.toArray(new SimpleFunctionWrapper[0]);
+		return FUNCTIONS.getTag(key,
+				tagKey -> MINECRAFT_SERVER.getFunctions()
+						.getTag(new ResourceLocation(tagKey.getNamespace(), tagKey.getKey())));
 	}
 
 	@Override
 	public Set<NamespacedKey> getTags() {
-		Set<NamespacedKey> result = new HashSet<>();
-		for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
-			result.add(fromResourceLocation(resourceLocation));
-		}
-		return result;
+		return FUNCTIONS.getTags(() -> {
+			Set<NamespacedKey> result = new HashSet<>();
+			for (ResourceLocation resourceLocation : MINECRAFT_SERVER.getFunctions().getFunctionNames()) {
+				result.add(fromResourceLocation(resourceLocation));
+			}
+			return result;
+		});
 	}
 
 	@Override
@@ -746,6 +793,16 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 	public void reloadDataPacks() {
 		CommandAPI.logNormal("Reloading datapacks...");
 
+		// Datapacks can change the contents of registries, so convert entries again
+		ENCHANTMENTS.clear();
+		POTION_EFFECTS.clear();
+		ENTITY_TYPES.clear();
+		SOUNDS.clear();
+		BIOMES.clear();
+
+		// Functions and tags are replaced when datapacks are reloaded
+		FUNCTIONS.invalidate();
+
 		// Get previously declared recipes to be re-registered later
 		Iterator<Recipe> recipes = Bukkit.recipeIterator();
 
@@ -754,12 +811,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 		serverResources.managers().commands = MINECRAFT_SERVER.getCommands();
 
 		// Update the ServerFunctionLibrary's command dispatcher with the new one
-		try {
-			CommandAPIHandler.getInstance().getField(ServerFunctionLibrary.class, "i")
-					.set(serverResources.managers().getFunctionLibrary(), getBrigadierDispatcher());
-		} catch (ReflectiveOperationException e) {
-			e.printStackTrace();
-		}
+		ServerFunctionLibrary_dispatcher.set(serverResources.managers().getFunctionLibrary(), getBrigadierDispatcher());
 
 		// From MINECRAFT_SERVER.reloadResources //
 		// Discover new packs
@@ -866,6 +918,7 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 				}
 			}
 
+			CommandAPIHandler.getInstance().getCommandTreeCache().invalidate();
 			CommandAPI.logNormal("Finished reloading datapacks");
 		} catch (Exception e) {
 			StringWriter stringWriter = new StringWriter();
@@ -880,6 +933,86 @@ public class NMS_1_19_R1 extends NMS_Common<CommandSourceStack> {
 
 	@Override
 	public void resendPackets(Player player) {
-		MINECRAFT_SERVER.getCommands().sendCommands(((CraftPlayer) player).getHandle());
+		ServerPlayer serverPlayer = ((CraftPlayer) player).getHandle();
+
+		// Paper lets plugins edit the command tree sent to each player, so the tree
+		// can't be shared if anything is listening for that. Spigot doesn't send
+		// the tree at all if tab completion is disabled
+		if (SpigotConfig.tabComplete < 0 || (AsyncPlayerSendCommandsEvent_handlers != null
+				&& AsyncPlayerSendCommandsEvent_handlers.getRegisteredListeners().length > 0)) {
+			MINECRAFT_SERVER.getCommands().sendCommands(serverPlayer);
+			return;
+		}
+
+		// From net.minecraft.commands.Commands.sendCommands, except the packet is
+		// shared by every player that can use the same nodes
+		CommandTreeCache cache = CommandAPIHandler.getInstance().getCommandTreeCache();
+		RootCommandNode<CommandSourceStack> root = MINECRAFT_SERVER.getCommands().getDispatcher().getRoot();
+		CommandSourceStack source = serverPlayer.createCommandSourceStack();
+		CommandTreeCache.Fingerprint fingerprint = cache.fingerprint(root, source);
+
+		List<String> visibleCommands = new ArrayList<>();
+		for (String command : fingerprint.visibleCommands()) {
+			if (SpigotConfig.sendNamespaced || !command.contains(":")) {
+				visibleCommands.add(command);
+			}
+		}
+		PlayerCommandSendEvent event = new PlayerCommandSendEvent(player, new LinkedHashSet<>(visibleCommands));
+		Bukkit.getPluginManager().callEvent(event);
+		Set<String> hiddenCommands = new HashSet<>();
+		for (String command : visibleCommands) {
+			if (!event.getCommands().contains(command)) {
+				hiddenCommands.add(command);
+			}
+		}
+
+		ClientboundCommandsPacket packet = cache.getPacket(fingerprint, hiddenCommands, () -> {
+			Map<CommandNode<CommandSourceStack>, CommandNode<SharedSuggestionProvider>> nodes = new IdentityHashMap<>();
+			RootCommandNode<CommandSourceStack> vanillaRoot = getBrigadierDispatcher().getRoot();
+			nodes.put(vanillaRoot, new RootCommandNode<>());
+			fillUsableCommands(vanillaRoot, nodes.get(vanillaRoot), source, nodes, Set.of());
+
+			RootCommandNode<SharedSuggestionProvider> usableRoot = new RootCommandNode<>();
+			nodes.put(root, usableRoot);
+			fillUsableCommands(root, usableRoot, source, nodes, hiddenCommands);
+			return new ClientboundCommandsPacket(usableRoot);
+		});
+		serverPlayer.connection.send(packet);
+	}
+
+	// From net.minecraft.commands.Commands.fillUsableCommands
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static void fillUsableCommands(CommandNode<CommandSourceStack> node,
+			CommandNode<SharedSuggestionProvider> target, CommandSourceStack source,
+			Map<CommandNode<CommandSourceStack>, CommandNode<SharedSuggestionProvider>> nodes,
+			Set<String> hiddenCommands) {
+		for (CommandNode<CommandSourceStack> child : node.getChildren()) {
+			if (hiddenCommands.contains(child.getName())
+					|| (!SpigotConfig.sendNamespaced && child.getName().contains(":"))) {
+				continue;
+			}
+			if (child.canUse(source)) {
+				ArgumentBuilder builder = child.createBuilder();
+				builder.requires(s -> true);
+				if (builder.getCommand() != null) {
+					builder.executes(cmdCtx -> 0);
+				}
+				if (builder instanceof RequiredArgumentBuilder argumentBuilder
+						&& argumentBuilder.getSuggestionsProvider() != null) {
+					argumentBuilder.suggests(net.minecraft.commands.synchronization.SuggestionProviders
+							.safelySwap(argumentBuilder.getSuggestionsProvider()));
+				}
+				if (builder.getRedirect() != null) {
+					builder.redirect(nodes.get(builder.getRedirect()));
+				}
+
+				CommandNode<SharedSuggestionProvider> copy = builder.build();
+				nodes.put(child, copy);
+				target.addChild(copy);
+				if (!child.getChildren().isEmpty()) {
+					fillUsableCommands(child, copy, source, nodes, Set.of());
+				}
+			}
+		}
 	}
 }
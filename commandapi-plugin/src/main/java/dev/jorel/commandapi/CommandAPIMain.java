@@ -47,7 +47,9 @@ public class CommandAPIMain extends JavaPlugin {
 		// Check dependencies for CommandAPI
 		CommandAPIHandler.getInstance().checkDependencies();
 
-		// Convert all plugins to be converted
+		// Convert all plugins to be converted. These are registered as one batch
+		// so the dispatcher is only updated once
+		CommandAPI.beginBatch();
 		for (Entry<JavaPlugin, String[]> pluginToConvert : CommandAPI.config.getPluginsToConvert()) {
 			if (pluginToConvert.getValue().length == 0) {
 				Converter.convert(pluginToConvert.getKey());
@@ -62,10 +64,16 @@ public class CommandAPIMain extends JavaPlugin {
 		for (String commandName : CommandAPI.config.getCommandsToConvert()) {
 			new AdvancedConverter(commandName).convertCommand();
 		}
+		CommandAPI.commitBatch();
 	}
 
 	@Override
 	public void onEnable() {
 		CommandAPI.onEnable(this);
 	}
+
+	@Override
+	public void onDisable() {
+		CommandAPI.onDisable();
+	}
 }